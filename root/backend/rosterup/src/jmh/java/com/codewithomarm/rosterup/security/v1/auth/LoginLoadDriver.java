@@ -0,0 +1,222 @@
+package com.codewithomarm.rosterup.security.v1.auth;
+
+import com.codewithomarm.rosterup.RosterupApplication;
+import com.codewithomarm.rosterup.security.v1.user.model.ERole;
+import com.codewithomarm.rosterup.security.v1.user.model.RosterupUser;
+import com.codewithomarm.rosterup.security.v1.user.repository.RosterupRoleRepository;
+import com.codewithomarm.rosterup.security.v1.user.repository.RosterupUserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Multi-threaded load driver for {@code /api/roster-up/v1/auth/**}. For every BCrypt cost it
+ * boots the application on a random port against an in-memory H2 database in PostgreSQL mode,
+ * creates one user per thread, and has each thread log in and exchange the refresh token in a
+ * loop. After a warm-up it reports p50/p99 latency and requests per second for both endpoints.
+ * <p>
+ * Options are passed as {@code key=value} arguments, e.g. through
+ * {@code gradle loginLoad -PloadArgs="costs=4,10,12 threads=16 duration=30"}:
+ * {@code costs} (default {@code 10}), {@code threads} (default {@code 8}), {@code warmup} and
+ * {@code duration} in seconds (defaults {@code 5} and {@code 20}).
+ */
+public final class LoginLoadDriver {
+
+    private static final String AUTH_PATH = "/api/roster-up/v1/auth";
+    private static final String PASSWORD = "LoadDriver1!";
+    private static final Pattern REFRESH_TOKEN = Pattern.compile("\"refresh_token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private LoginLoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int[] costs = Arrays.stream(options.getOrDefault("costs", "10").split(","))
+                .mapToInt(cost -> Integer.parseInt(cost.trim()))
+                .toArray();
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "20")));
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-6s %-8s %8s %10s %10s %8s %10s",
+                "cost", "endpoint", "threads", "p50 (ms)", "p99 (ms)", "errors", "req/s"));
+        for (int cost : costs) {
+            report.addAll(run(cost, threads, warmup, duration));
+        }
+        report.forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private static List<String> run(int cost, int threads, Duration warmup, Duration duration) throws Exception {
+        // Passed as command line arguments so they take precedence over application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RosterupApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load" + cost + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--jwt.revocation.notify.enabled=false",
+                "--security.password.bcrypt-strength=" + cost);
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            List<String> usernames = createUsers(context, threads);
+            runPhase(port, usernames, warmup);
+            Phase phase = runPhase(port, usernames, duration);
+            return List.of(
+                    phase.login.format(cost, "login", threads, phase.seconds),
+                    phase.refresh.format(cost, "refresh", threads, phase.seconds));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static List<String> createUsers(ConfigurableApplicationContext context, int count) {
+        RosterupUserRepository userRepository = context.getBean(RosterupUserRepository.class);
+        RosterupRoleRepository roleRepository = context.getBean(RosterupRoleRepository.class);
+        String encodedPassword = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            RosterupUser user = new RosterupUser();
+            user.setUsername("load.user." + i);
+            user.setPassword(encodedPassword);
+            user.setEmail("load.user." + i + "@rosterup.test");
+            user.setAccountNonExpired(true);
+            user.setAccountNonLocked(true);
+            user.setCredentialsNonExpired(true);
+            user.setEnabled(true);
+            user.setRosterupRoles(Set.of(roleRepository.findByName(ERole.USER).orElseThrow()));
+            userRepository.save(user);
+            usernames.add(user.getUsername());
+        }
+        return usernames;
+    }
+
+    private static Phase runPhase(int port, List<String> usernames, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI loginUri = URI.create("http://localhost:" + port + AUTH_PATH + "/login");
+        URI refreshUri = URI.create("http://localhost:" + port + AUTH_PATH + "/refresh");
+        long deadline = System.nanoTime() + duration.toNanos();
+        long startedAt = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(usernames.size());
+        List<Future<Phase>> workers = new ArrayList<>();
+        for (String username : usernames) {
+            String body = "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+            workers.add(executor.submit(() -> {
+                Phase phase = new Phase();
+                while (System.nanoTime() < deadline) {
+                    HttpRequest login = HttpRequest.newBuilder(loginUri)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                    HttpResponse<String> loginResponse = phase.login.send(client, login);
+                    Matcher refreshToken = loginResponse == null ? null : REFRESH_TOKEN.matcher(loginResponse.body());
+                    if (refreshToken == null || !refreshToken.find()) {
+                        continue;
+                    }
+                    HttpRequest refresh = HttpRequest.newBuilder(refreshUri)
+                            .header("Authorization", "Bearer " + refreshToken.group(1))
+                            .POST(HttpRequest.BodyPublishers.noBody())
+                            .build();
+                    phase.refresh.send(client, refresh);
+                }
+                return phase;
+            }));
+        }
+
+        Phase total = new Phase();
+        for (Future<Phase> worker : workers) {
+            total.merge(worker.get());
+        }
+        total.seconds = (System.nanoTime() - startedAt) / 1e9;
+        executor.shutdown();
+        return total;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    private static final class Phase {
+
+        private final Endpoint login = new Endpoint();
+        private final Endpoint refresh = new Endpoint();
+        private double seconds;
+
+        private void merge(Phase other) {
+            login.merge(other.login);
+            refresh.merge(other.refresh);
+        }
+    }
+
+    private static final class Endpoint {
+
+        private final List<Long> latenciesNanos = new ArrayList<>();
+        private long errors;
+
+        /**
+         * Sends the request and records its latency.
+         * @return the response, or {@code null} if the request failed.
+         */
+        private HttpResponse<String> send(HttpClient client, HttpRequest request) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    errors++;
+                    return null;
+                }
+                latenciesNanos.add(System.nanoTime() - start);
+                return response;
+            } catch (Exception e) {
+                errors++;
+                return null;
+            }
+        }
+
+        private void merge(Endpoint other) {
+            latenciesNanos.addAll(other.latenciesNanos);
+            errors += other.errors;
+        }
+
+        private String format(int cost, String name, int threads, double seconds) {
+            Collections.sort(latenciesNanos);
+            return String.format("%-6d %-8s %8d %10.2f %10.2f %8d %10.1f",
+                    cost, name, threads, percentileMillis(0.50), percentileMillis(0.99), errors,
+                    latenciesNanos.size() / seconds);
+        }
+
+        private double percentileMillis(double percentile) {
+            if (latenciesNanos.isEmpty()) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile * latenciesNanos.size()) - 1;
+            return latenciesNanos.get(Math.max(index, 0)) / 1e6;
+        }
+    }
+}
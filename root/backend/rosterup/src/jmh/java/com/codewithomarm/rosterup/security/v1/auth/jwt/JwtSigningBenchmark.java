@@ -0,0 +1,71 @@
+package com.codewithomarm.rosterup.security.v1.auth.jwt;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of signing a new access token and of verifying one with {@link JwtService}, for each
+ * supported signature algorithm. Revocation checks are excluded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtSigningBenchmark {
+
+    private static final String SECRET = "eW91cl9zdXBlcl9zZWNyZXRfa2V5XzEyMzQ1Njc4OTA=";
+    private static final String KEY_ID = "benchmark";
+
+    @Param({"HS256", "RS256", "ES256"})
+    private String algorithm;
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtKeyProvider jwtKeyProvider = new JwtKeyProvider(SECRET, "", "", false);
+        if (!"HS256".equals(algorithm)) {
+            KeyPair keyPair = generateKeyPair();
+            ReflectionTestUtils.setField(jwtKeyProvider, "current", JwtKeyMaterial.fromKeyPairs(
+                    KEY_ID, keyPair.getPrivate(), Map.of(KEY_ID, keyPair.getPublic()), null));
+        }
+        jwtService = new JwtService(null, null, jwtKeyProvider);
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 86400000L);
+        ReflectionTestUtils.setField(jwtService, "jwtRefreshExpirationMs", 604800000L);
+        userDetails = User.withUsername("benchmark.user").password("unused").roles("DEV", "USER").build();
+        token = jwtService.generateToken(userDetails).getCompactToken();
+    }
+
+    @Benchmark
+    public IssuedToken sign() {
+        return jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.verify(token);
+    }
+
+    private KeyPair generateKeyPair() throws Exception {
+        if ("RS256".equals(algorithm)) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        }
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+}
@@ -0,0 +1,64 @@
+package com.codewithomarm.rosterup.security.v1.auth.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request JWT cost of the filter before and after the introduction of
+ * {@link VerifiedToken}. The legacy path re-parses and re-verifies the token for every claim
+ * it reads; the verified path parses it once. Token-table lookups are excluded from both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "eW91cl9zdXBlcl9zZWNyZXRfa2V5XzEyMzQ1Njc4OTA=";
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(null, null, new JwtKeyProvider(SECRET, "", "", false));
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 86400000L);
+        ReflectionTestUtils.setField(jwtService, "jwtRefreshExpirationMs", 604800000L);
+        userDetails = User.withUsername("benchmark.user").password("unused").roles("DEV", "USER").build();
+        token = jwtService.generateToken(userDetails).getCompactToken();
+    }
+
+    @Benchmark
+    public boolean legacyPerRequestParsing() {
+        // JwtAuthenticationFilter: extractUsername(jwt)
+        String username = legacyExtractAllClaims(token).getSubject();
+        // JwtService.isTokenValid(jwt, userDetails): extractUsername(jwt) again
+        String validatedUsername = legacyExtractAllClaims(token).getSubject();
+        return username.equals(userDetails.getUsername()) && validatedUsername.equals(userDetails.getUsername());
+    }
+
+    @Benchmark
+    public boolean verifiedTokenPerRequestParsing() {
+        VerifiedToken verifiedToken = jwtService.verify(token);
+        return verifiedToken.getSubject().equals(userDetails.getUsername());
+    }
+
+    private static Claims legacyExtractAllClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
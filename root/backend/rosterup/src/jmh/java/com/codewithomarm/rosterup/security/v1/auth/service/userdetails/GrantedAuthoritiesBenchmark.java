@@ -0,0 +1,72 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.userdetails;
+
+import com.codewithomarm.rosterup.security.v1.user.model.ERole;
+import com.codewithomarm.rosterup.security.v1.user.model.RosterupRole;
+import com.codewithomarm.rosterup.security.v1.user.model.RosterupUser;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of {@link RosterupUserDetailsImpl#getAuthorities()}, which runs for every authorization
+ * check, and of the {@code hasRole("DEV")} check itself, for a user holding every role. Run with
+ * {@code -prof gc} to see the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GrantedAuthoritiesBenchmark {
+
+    private final AuthorityAuthorizationManager<Object> hasDevRole = AuthorityAuthorizationManager.hasRole("DEV");
+    private final Object securedObject = new Object();
+
+    private RosterupUserDetailsImpl userDetails;
+    private Supplier<Authentication> authentication;
+
+    @Setup
+    public void setUp() {
+        Set<RosterupRole> roles = new HashSet<>();
+        for (ERole name : ERole.values()) {
+            RosterupRole role = new RosterupRole();
+            role.setName(name);
+            roles.add(role);
+        }
+        RosterupUser user = new RosterupUser();
+        user.setId(1L);
+        user.setUsername("benchmark.user");
+        user.setPassword("unused");
+        user.setAccountNonExpired(true);
+        user.setAccountNonLocked(true);
+        user.setCredentialsNonExpired(true);
+        user.setEnabled(true);
+        user.setRosterupRoles(roles);
+        userDetails = new RosterupUserDetailsImpl(user);
+        Authentication token = UsernamePasswordAuthenticationToken.authenticated(userDetails, null,
+                userDetails.getAuthorities());
+        authentication = () -> token;
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return userDetails.getAuthorities();
+    }
+
+    /**
+     * The check {@code authorizeHttpRequests} runs for {@code hasRole("DEV")}.
+     */
+    @Benchmark
+    public boolean hasDevRole() {
+        return hasDevRole.check(authentication, securedObject).isGranted();
+    }
+}
@@ -0,0 +1,51 @@
+package com.codewithomarm.rosterup.tenant.v1.resolver;
+
+import com.codewithomarm.rosterup.tenant.v1.model.Tenant;
+import com.codewithomarm.rosterup.tenant.v1.repository.TenantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of resolving a subdomain whose tenant is already cached, which is what every tenant
+ * request pays once the cache is warm. The repository is a stub; a miss is not measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TenantResolverBenchmark {
+
+    private static final String SUBDOMAIN = "codewithomarm";
+
+    private TenantResolver tenantResolver;
+
+    @Setup
+    public void setUp() {
+        Tenant tenant = new Tenant("Code With Omarm", SUBDOMAIN, true);
+        ReflectionTestUtils.setField(tenant, "id", 1L);
+        TenantRepository tenantRepository = (TenantRepository) Proxy.newProxyInstance(
+                TenantRepository.class.getClassLoader(), new Class<?>[]{TenantRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findBySubdomain")) {
+                        return Optional.of(tenant);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        tenantResolver = new TenantResolver(tenantRepository, new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(10),
+                Duration.ofMinutes(10));
+        tenantResolver.resolve(SUBDOMAIN);
+    }
+
+    @Benchmark
+    public Optional<ResolvedTenant> resolveCachedSubdomain() {
+        return tenantResolver.resolve(SUBDOMAIN);
+    }
+}
@@ -0,0 +1,37 @@
+package com.codewithomarm.rosterup.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the check constraint Hibernate put on {@code auth.roles.name} when it created the table.
+ * It lists the {@code ERole} values of that time, and {@code ddl-auto=update} never widens it,
+ * so {@link DataInitializer} could not insert a role added since, such as {@code SERVICE}. The
+ * column is still written only from the enum. Idempotent, so it runs on every startup.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class RoleNameMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleNameMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RoleNameMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        try {
+            jdbcTemplate.execute("ALTER TABLE auth.roles DROP CONSTRAINT IF EXISTS roles_name_check");
+        } catch (DataAccessException e) {
+            logger.warn("Could not drop the check constraint of auth.roles.name", e);
+        }
+    }
+}
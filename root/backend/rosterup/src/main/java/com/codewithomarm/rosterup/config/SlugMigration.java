@@ -0,0 +1,75 @@
+package com.codewithomarm.rosterup.config;
+
+import com.codewithomarm.rosterup.roster.v1.common.util.Slugs;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Backfills the {@code slug} column of {@code tenant.tenants} and {@code roster.accounts}, which
+ * {@code ddl-auto=update} adds empty to existing tables. Runs at startup, once the schema has
+ * been updated:
+ * <ol>
+ *     <li>fills the slug of every row that has none with {@link Slugs#of(String)}, in batches of
+ *     {@value #BATCH_SIZE} rows. The slug is computed in Java rather than with SQL {@code LOWER},
+ *     whose case folding differs from {@code Locale.ROOT} for non-ASCII names, so backfilled
+ *     rows match the slugs the entities write and the searches look up;</li>
+ *     <li>makes the column NOT NULL, so a row written without a slug is rejected.</li>
+ * </ol>
+ * New and updated rows get their slug from the entities. All steps are idempotent, so the
+ * migration is safe to run on every startup.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SlugMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlugMigration.class);
+
+    private static final String[] TABLES = {"tenant.tenants", "roster.accounts"};
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SlugMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        for (String table : TABLES) {
+            int backfilled = backfill(table);
+            if (backfilled > 0) {
+                logger.info("Backfilled the slug of {} rows in {}", backfilled, table);
+            }
+
+            try {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN slug SET NOT NULL");
+            } catch (DataAccessException e) {
+                logger.warn("Could not add NOT NULL constraint to {}.slug", table, e);
+            }
+        }
+    }
+
+    private int backfill(String table) {
+        int backfilled = 0;
+        long lastId = Long.MIN_VALUE;
+        while (true) {
+            List<Object[]> slugs = jdbcTemplate.query(
+                    "SELECT id, name FROM " + table + " WHERE slug IS NULL AND id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{Slugs.of(rs.getString("name")), rs.getLong("id")},
+                    lastId, BATCH_SIZE);
+            if (slugs.isEmpty()) {
+                return backfilled;
+            }
+            jdbcTemplate.batchUpdate("UPDATE " + table + " SET slug = ? WHERE id = ?", slugs);
+            backfilled += slugs.size();
+            lastId = (Long) slugs.get(slugs.size() - 1)[1];
+        }
+    }
+}
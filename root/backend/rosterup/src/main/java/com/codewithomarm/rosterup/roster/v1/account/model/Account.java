@@ -1,5 +1,6 @@
 package com.codewithomarm.rosterup.roster.v1.account.model;
 
+import com.codewithomarm.rosterup.roster.v1.common.util.Slugs;
 import com.codewithomarm.rosterup.tenant.v1.model.Tenant;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -9,7 +10,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name="accounts", schema="roster",
-        indexes = @Index(name="fk_account_tenant_idx", columnList = "fk_tenant_id"))
+        indexes = {
+                @Index(name="fk_account_tenant_idx", columnList = "fk_tenant_id"),
+                @Index(name="account_tenant_slug_idx", columnList = "fk_tenant_id, slug")
+        })
 public class Account {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,6 +22,10 @@ public class Account {
     @Column(name = "name", length = 50, nullable = false, unique = true)
     private String name;
 
+    // Maintained from name on every insert and update; searched instead of an expression over name
+    @Column(name = "slug", length = 50)
+    private String slug;
+
     @Column(name = "is_active", nullable = false)
     private Boolean isActive;
 
@@ -61,6 +69,10 @@ public class Account {
         this.name = name;
     }
 
+    public String getSlug() {
+        return slug;
+    }
+
     public Boolean getActive() {
         return isActive;
     }
@@ -92,4 +104,10 @@ public class Account {
     public void setTenant(Tenant tenant) {
         this.tenant = tenant;
     }
+
+    @PrePersist
+    @PreUpdate
+    private void updateSlug() {
+        slug = Slugs.of(name);
+    }
 }
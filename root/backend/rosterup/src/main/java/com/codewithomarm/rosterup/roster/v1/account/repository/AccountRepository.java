@@ -1,17 +1,20 @@
 package com.codewithomarm.rosterup.roster.v1.account.repository;
 
 import com.codewithomarm.rosterup.roster.v1.account.model.Account;
+import com.codewithomarm.rosterup.roster.v1.common.util.Slugs;
+import com.codewithomarm.rosterup.tenant.v1.context.TenantContext;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
-    // Fetch account by name and tenant Id
-    @Query("SELECT a FROM Account a WHERE LOWER(REPLACE(a.name, ' ', '-')) = LOWER(:name) AND a.tenant.id = :tenantId")
-    Page<Account> findByNameAndTenantId(String name, Long tenantId, Pageable pageable);
+    // Fetch account by name and tenant Id, the name given as its slug (see Slugs.of) so the column index is used
+    @Query("SELECT a FROM Account a WHERE a.slug = :slug AND a.tenant.id = :tenantId")
+    Page<Account> findByNameAndTenantId(String slug, Long tenantId, Pageable pageable);
 
     // Fetch accounts by isActive and tenant Id
     Page<Account> findByIsActiveAndTenantId(Boolean isActive, Long tenantId, Pageable pageable);
@@ -27,4 +30,45 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     // Fetch accounts by created at and tenant id
     Page<Account> findByCreatedAtAfter(LocalDateTime dateTime, Pageable pageable);
+
+    // Slices fetch one row more than the page size to tell whether there is a next page, without a count query
+
+    // Fetch a slice of accounts by name and tenant Id, the name given as its slug
+    @Query("SELECT a FROM Account a WHERE a.slug = :slug AND a.tenant.id = :tenantId")
+    Slice<Account> sliceByNameAndTenantId(String slug, Long tenantId, Pageable pageable);
+
+    // Fetch a slice of accounts by isActive and tenant Id
+    @Query("SELECT a FROM Account a WHERE a.isActive = :isActive AND a.tenant.id = :tenantId")
+    Slice<Account> sliceByIsActiveAndTenantId(Boolean isActive, Long tenantId, Pageable pageable);
+
+    // Fetch a slice of accounts by tenant Id
+    @Query("SELECT a FROM Account a WHERE a.tenant.id = :tenantId")
+    Slice<Account> sliceByTenantId(Long tenantId, Pageable pageable);
+
+    // Fetch a slice of accounts by tenant name
+    @Query("SELECT a FROM Account a WHERE a.tenant.name = :tenantName")
+    Slice<Account> sliceByTenantName(String tenantName, Pageable pageable);
+
+    // Fetch a slice of accounts by modifiedAt
+    @Query("SELECT a FROM Account a WHERE a.modifiedAt < :dateTime")
+    Slice<Account> sliceByModifiedAtBefore(LocalDateTime dateTime, Pageable pageable);
+
+    // Fetch a slice of accounts by created at
+    @Query("SELECT a FROM Account a WHERE a.createdAt > :dateTime")
+    Slice<Account> sliceByCreatedAtAfter(LocalDateTime dateTime, Pageable pageable);
+
+    // Fetch accounts of the tenant the current request was routed to
+    default Page<Account> findByCurrentTenant(Pageable pageable) {
+        return findByTenantId(TenantContext.requireTenantId(), pageable);
+    }
+
+    // Fetch accounts by isActive for the tenant the current request was routed to
+    default Page<Account> findByIsActiveAndCurrentTenant(Boolean isActive, Pageable pageable) {
+        return findByIsActiveAndTenantId(isActive, TenantContext.requireTenantId(), pageable);
+    }
+
+    // Fetch accounts by name for the tenant the current request was routed to
+    default Page<Account> findByNameAndCurrentTenant(String name, Pageable pageable) {
+        return findByNameAndTenantId(Slugs.of(name), TenantContext.requireTenantId(), pageable);
+    }
 }
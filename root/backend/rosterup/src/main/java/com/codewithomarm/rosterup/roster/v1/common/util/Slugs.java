@@ -0,0 +1,21 @@
+package com.codewithomarm.rosterup.roster.v1.common.util;
+
+import java.util.Locale;
+
+/**
+ * Builds the slugs that tenants and accounts are searched by.
+ */
+public final class Slugs {
+
+    private Slugs() {
+    }
+
+    /**
+     * @param name A tenant or account name.
+     * @return the name in lower case with spaces replaced by hyphens, e.g. {@code code-with-omarm}
+     * for {@code Code With Omarm}; {@code null} for a {@code null} name.
+     */
+    public static String of(String name) {
+        return name == null ? null : name.replace(' ', '-').toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,8 +1,13 @@
 package com.codewithomarm.rosterup.security.v1.auth.config;
 
+import com.codewithomarm.rosterup.security.v1.auth.crypto.BoundedPasswordEncoder;
 import com.codewithomarm.rosterup.security.v1.auth.jwt.JwtAuthenticationFilter;
+import com.codewithomarm.rosterup.security.v1.auth.provider.CachingAuthenticationProvider;
 import com.codewithomarm.rosterup.security.v1.auth.service.auth.LogoutService;
 import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.RosterupUserDetailsServiceImpl;
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.VerifiedCredentialCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,7 +19,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,15 +27,34 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Routes open to everyone. {@link JwtAuthenticationFilter} does not run for them.
+     */
+    public static final String[] PUBLIC_ENDPOINTS = {
+            "/api/roster-up/v1/auth/**"
+    };
+
     private final RosterupUserDetailsServiceImpl userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final LogoutService logoutService;
+    private final VerifiedCredentialCache verifiedCredentialCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.password.bcrypt-strength}")
+    private int bcryptStrength;
+    @Value("${security.password.hashing-threads}")
+    private int hashingThreads;
+    @Value("${security.password.hashing-queue-capacity}")
+    private int hashingQueueCapacity;
 
     public SecurityConfig(RosterupUserDetailsServiceImpl userDetailsService,
-                          JwtAuthenticationFilter jwtAuthenticationFilter, LogoutService logoutService) {
+                          JwtAuthenticationFilter jwtAuthenticationFilter, LogoutService logoutService,
+                          VerifiedCredentialCache verifiedCredentialCache, MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.logoutService = logoutService;
+        this.verifiedCredentialCache = verifiedCredentialCache;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -39,12 +62,17 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authz -> authz
-                        .requestMatchers("/api/roster-up/v1/auth/**").permitAll()
+                        .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
+                        // The error dispatch carries no authentication, so securing it turned every 403 into a 401
+                        .requestMatchers("/error").permitAll()
                         .requestMatchers("/api/roster-up/v1/tenants/**").hasRole("DEV")
+                        .requestMatchers("/api/roster-up/v1/tokens/**").hasRole("SERVICE")
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .httpBasic(Customizer.withDefaults())
-                .authenticationProvider(authenticationProvider())
+                // Only the filter chain (HTTP Basic) consults the credential cache; the login
+                // endpoint authenticates through the global manager and always checks the password
+                .authenticationProvider(new CachingAuthenticationProvider(authenticationProvider(), verifiedCredentialCache))
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .logout(logout -> logout
                         .logoutUrl("/api/auth/logout")
@@ -68,7 +96,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(bcryptStrength, hashingThreads, hashingQueueCapacity, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,79 @@
+package com.codewithomarm.rosterup.security.v1.auth.config;
+
+import com.codewithomarm.rosterup.security.v1.auth.jwt.TokenDigests;
+import com.codewithomarm.rosterup.security.v1.auth.model.Token;
+import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Migrates {@code auth.tokens} from storing the raw compact JWT to storing a fixed-length
+ * token id. Runs at startup, before the revocation index is loaded and before any request
+ * is served:
+ * <ol>
+ *     <li>drops the NOT NULL constraint of the legacy {@code token} column, which
+ *     {@code ddl-auto=update} never relaxes on its own, and the check constraint of
+ *     {@code token_type}, which would reject refresh tokens;</li>
+ *     <li>replaces the raw token of every legacy row with its SHA-256 digest, in batches; rows
+ *     with neither a token nor a token id cannot match any token and are left alone;</li>
+ *     <li>stamps legacy rows without an issue time with the current time, so the token reaper
+ *     removes them once they are certain to have expired.</li>
+ * </ol>
+ * All steps are idempotent, so the migration is safe to run on every startup.
+ */
+@Component
+public class TokenIdMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenIdMigration.class);
+
+    private final TokenRepository tokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TokenIdMigration(TokenRepository tokenRepository, JdbcTemplate jdbcTemplate) {
+        this.tokenRepository = tokenRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        try {
+            jdbcTemplate.execute("ALTER TABLE auth.tokens ALTER COLUMN token DROP NOT NULL");
+        } catch (DataAccessException e) {
+            logger.warn("Could not drop NOT NULL constraint of auth.tokens.token", e);
+        }
+
+        try {
+            // The enum check constraint created with the table predates refresh tokens
+            jdbcTemplate.execute("ALTER TABLE auth.tokens DROP CONSTRAINT IF EXISTS tokens_token_type_check");
+        } catch (DataAccessException e) {
+            logger.warn("Could not drop check constraint of auth.tokens.token_type", e);
+        }
+
+        int migrated = 0;
+        List<Token> legacyTokens = tokenRepository.findTop500ByTokenIdIsNullAndTokenIsNotNull();
+        while (!legacyTokens.isEmpty()) {
+            legacyTokens.forEach(token -> {
+                token.setTokenId(TokenDigests.sha256Hex(token.getToken()));
+                token.setToken(null);
+            });
+            tokenRepository.saveAll(legacyTokens);
+            migrated += legacyTokens.size();
+            legacyTokens = tokenRepository.findTop500ByTokenIdIsNullAndTokenIsNotNull();
+        }
+        if (migrated > 0) {
+            logger.info("Replaced {} raw tokens in auth.tokens with their digest", migrated);
+        }
+
+        int stamped = tokenRepository.setMissingIssuedAt(LocalDateTime.now());
+        if (stamped > 0) {
+            logger.info("Stamped {} tokens in auth.tokens with an issue time", stamped);
+        }
+    }
+}
@@ -2,35 +2,48 @@ package com.codewithomarm.rosterup.security.v1.auth.controller;
 
 import com.codewithomarm.rosterup.security.v1.auth.dto.request.AuthenticationRequest;
 import com.codewithomarm.rosterup.security.v1.auth.dto.response.AuthenticationResponse;
+import com.codewithomarm.rosterup.security.v1.auth.jwt.JsonWebKeys;
+import com.codewithomarm.rosterup.security.v1.auth.jwt.JwtKeyProvider;
 import com.codewithomarm.rosterup.security.v1.auth.service.auth.AuthenticationService;
 import com.codewithomarm.rosterup.security.v1.auth.service.auth.LogoutService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
 
 
 @RestController
 @RequestMapping("/api/roster-up/v1/auth")
 public class AuthControllerV1 {
 
+    private static final Duration JWKS_MAX_AGE = Duration.ofMinutes(5);
+
     private final AuthenticationService authenticationService;
     private final LogoutService logoutService;
+    private final JwtKeyProvider jwtKeyProvider;
 
-    public AuthControllerV1(AuthenticationService authenticationService, LogoutService logoutService) {
+    public AuthControllerV1(AuthenticationService authenticationService, LogoutService logoutService,
+                            JwtKeyProvider jwtKeyProvider) {
         this.authenticationService = authenticationService;
         this.logoutService = logoutService;
+        this.jwtKeyProvider = jwtKeyProvider;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthenticationResponse> authenticate(@Valid @RequestBody AuthenticationRequest request) {
-        return ResponseEntity.ok(authenticationService.authenticate(request));
+    public ResponseEntity<AuthenticationResponse> authenticate(@Valid @RequestBody AuthenticationRequest request,
+                                                               HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authenticationService.authenticate(request, httpRequest.getRemoteAddr()));
     }
 
     @PostMapping("/logout")
@@ -40,7 +53,19 @@ public class AuthControllerV1 {
     }
 
     @PostMapping("/refresh")
-    public void refreshToken(HttpServletRequest request, HttpServletResponse response) throws IOException {
-        authenticationService.refreshToken(request, response);
+    public ResponseEntity<AuthenticationResponse> refreshToken(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return ResponseEntity.ok(authenticationService.refreshToken(authorization));
+    }
+
+    /**
+     * Publishes the public keys that verify RosterUp tokens, so other services can validate
+     * them locally. Empty while tokens are signed with the HMAC secret.
+     */
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(JWKS_MAX_AGE).cachePublic())
+                .body(JsonWebKeys.toJwkSet(jwtKeyProvider.current().getPublicKeys()));
     }
 }
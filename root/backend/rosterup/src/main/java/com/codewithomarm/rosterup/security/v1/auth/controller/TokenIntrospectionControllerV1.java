@@ -0,0 +1,42 @@
+package com.codewithomarm.rosterup.security.v1.auth.controller;
+
+import com.codewithomarm.rosterup.security.v1.auth.dto.request.TokenIntrospectionBatchRequest;
+import com.codewithomarm.rosterup.security.v1.auth.dto.response.TokenIntrospectionResponse;
+import com.codewithomarm.rosterup.security.v1.auth.service.introspection.TokenIntrospectionService;
+import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Token introspection for internal services. As RFC 7662 expects of an introspection endpoint,
+ * only callers with the {@code SERVICE} role may use it, so end users cannot probe other
+ * users' tokens; it is kept out of {@code /api/roster-up/v1/auth/**} for that reason.
+ */
+@RestController
+@RequestMapping("/api/roster-up/v1/tokens")
+public class TokenIntrospectionControllerV1 {
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    public TokenIntrospectionControllerV1(TokenIntrospectionService tokenIntrospectionService) {
+        this.tokenIntrospectionService = tokenIntrospectionService;
+    }
+
+    @PostMapping(value = "/introspect", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<TokenIntrospectionResponse> introspect(@RequestParam("token") String token) {
+        return ResponseEntity.ok(tokenIntrospectionService.introspect(token));
+    }
+
+    @PostMapping(value = "/introspect/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<TokenIntrospectionResponse>> introspectBatch(
+            @Valid @RequestBody TokenIntrospectionBatchRequest request) {
+        return ResponseEntity.ok(tokenIntrospectionService.introspectAll(request.getTokens()));
+    }
+}
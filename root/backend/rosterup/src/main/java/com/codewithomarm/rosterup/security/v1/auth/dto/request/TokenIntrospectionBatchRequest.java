@@ -0,0 +1,31 @@
+package com.codewithomarm.rosterup.security.v1.auth.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class TokenIntrospectionBatchRequest {
+
+    public static final int MAX_TOKENS = 100;
+
+    @NotEmpty(message = "Tokens field is required")
+    @Size(max = MAX_TOKENS, message = "At most " + MAX_TOKENS + " tokens can be introspected at once")
+    private List<@NotBlank(message = "Tokens must not be blank") String> tokens;
+
+    public TokenIntrospectionBatchRequest() {
+    }
+
+    public TokenIntrospectionBatchRequest(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(List<String> tokens) {
+        this.tokens = tokens;
+    }
+}
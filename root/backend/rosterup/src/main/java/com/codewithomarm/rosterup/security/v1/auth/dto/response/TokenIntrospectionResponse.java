@@ -0,0 +1,74 @@
+package com.codewithomarm.rosterup.security.v1.auth.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Introspection result in the format of RFC 7662. Inactive tokens only carry {@code active}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospectionResponse {
+
+    private static final TokenIntrospectionResponse INACTIVE = new TokenIntrospectionResponse(false, null, null,
+            null, null, null, null);
+
+    private final boolean active;
+
+    private final String sub;
+
+    private final List<String> roles;
+
+    private final Long exp;
+
+    private final Long iat;
+
+    private final String jti;
+
+    @JsonProperty("token_type")
+    private final String tokenType;
+
+    public TokenIntrospectionResponse(boolean active, String sub, List<String> roles, Long exp, Long iat,
+                                      String jti, String tokenType) {
+        this.active = active;
+        this.sub = sub;
+        this.roles = roles;
+        this.exp = exp;
+        this.iat = iat;
+        this.jti = jti;
+        this.tokenType = tokenType;
+    }
+
+    public static TokenIntrospectionResponse inactive() {
+        return INACTIVE;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public String getSub() {
+        return sub;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public Long getExp() {
+        return exp;
+    }
+
+    public Long getIat() {
+        return iat;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+}
@@ -0,0 +1,12 @@
+package com.codewithomarm.rosterup.security.v1.auth.exception;
+
+import java.io.Serial;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.codewithomarm.rosterup.security.v1.auth.exception;
+
+import java.io.Serial;
+
+public class LoginRateLimitedException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public LoginRateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
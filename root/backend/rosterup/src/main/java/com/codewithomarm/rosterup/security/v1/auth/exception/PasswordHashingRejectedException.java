@@ -0,0 +1,12 @@
+package com.codewithomarm.rosterup.security.v1.auth.exception;
+
+import java.io.Serial;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
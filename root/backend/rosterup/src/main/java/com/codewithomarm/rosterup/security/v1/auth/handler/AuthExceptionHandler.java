@@ -0,0 +1,57 @@
+package com.codewithomarm.rosterup.security.v1.auth.handler;
+
+import com.codewithomarm.rosterup.roster.v1.common.dto.response.ErrorResponse;
+import com.codewithomarm.rosterup.security.v1.auth.exception.InvalidRefreshTokenException;
+import com.codewithomarm.rosterup.security.v1.auth.exception.LoginRateLimitedException;
+import com.codewithomarm.rosterup.security.v1.auth.exception.PasswordHashingRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+@ControllerAdvice
+public class AuthExceptionHandler {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRefreshTokenException(InvalidRefreshTokenException e) {
+        ErrorResponse error = new ErrorResponse(
+                "Invalid Refresh Token",
+                HttpStatus.UNAUTHORIZED.value(),
+                e.getClass().getName()
+        );
+        error.addDetail(e.getMessage());
+
+        return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(LoginRateLimitedException.class)
+    public ResponseEntity<ErrorResponse> handleLoginRateLimitedException(LoginRateLimitedException e) {
+        ErrorResponse error = new ErrorResponse(
+                "Too Many Login Attempts",
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                e.getClass().getName()
+        );
+        error.addDetail(e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingRejectedException(PasswordHashingRejectedException e) {
+        ErrorResponse error = new ErrorResponse(
+                "Authentication Overloaded",
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                e.getClass().getName()
+        );
+        error.addDetail(e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(error);
+    }
+}
@@ -0,0 +1,41 @@
+package com.codewithomarm.rosterup.security.v1.auth.jwt;
+
+import java.util.Date;
+
+/**
+ * A token freshly signed by {@link JwtService}, together with the claims the caller needs to
+ * persist it without parsing it back.
+ */
+public final class IssuedToken {
+
+    private final String compactToken;
+    private final String tokenId;
+    private final Date issuedAt;
+    private final Date expiration;
+
+    IssuedToken(String compactToken, String tokenId, Date issuedAt, Date expiration) {
+        this.compactToken = compactToken;
+        this.tokenId = tokenId;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+    }
+
+    public String getCompactToken() {
+        return compactToken;
+    }
+
+    /**
+     * @return the {@code jti} claim of the token.
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Date getExpiration() {
+        return expiration;
+    }
+}
@@ -0,0 +1,69 @@
+package com.codewithomarm.rosterup.security.v1.auth.jwt;
+
+import java.math.BigInteger;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders public verification keys as an RFC 7517 JSON Web Key Set.
+ */
+public final class JsonWebKeys {
+
+    // Size in bytes of a P-256 coordinate
+    private static final int P256_COORDINATE_LENGTH = 32;
+
+    private JsonWebKeys() {
+    }
+
+    /**
+     * @param publicKeys The public keys by key id.
+     * @return the JWK Set of the given keys, ready to be serialized as JSON.
+     */
+    public static Map<String, Object> toJwkSet(Map<String, PublicKey> publicKeys) {
+        List<Map<String, Object>> keys = publicKeys.entrySet().stream()
+                .map(entry -> toJwk(entry.getKey(), entry.getValue()))
+                .toList();
+        return Map.of("keys", keys);
+    }
+
+    private static Map<String, Object> toJwk(String keyId, PublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (publicKey instanceof RSAPublicKey rsaPublicKey) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsaPublicKey.getModulus(), 0));
+            jwk.put("e", base64Url(rsaPublicKey.getPublicExponent(), 0));
+        } else if (publicKey instanceof ECPublicKey ecPublicKey) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(ecPublicKey.getW().getAffineX(), P256_COORDINATE_LENGTH));
+            jwk.put("y", base64Url(ecPublicKey.getW().getAffineY(), P256_COORDINATE_LENGTH));
+        }
+        jwk.put("use", "sig");
+        jwk.put("alg", JwtKeyMaterial.signatureAlgorithmFor(publicKey).getValue());
+        jwk.put("kid", keyId);
+        return jwk;
+    }
+
+    /**
+     * Encodes an unsigned big-endian integer, left-padded with zeros to {@code length} bytes.
+     */
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        // toByteArray adds a leading sign byte when the top bit is set
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -1,54 +1,137 @@
 package com.codewithomarm.rosterup.security.v1.auth.jwt;
 
+import com.codewithomarm.rosterup.security.v1.auth.config.SecurityConfig;
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.RoleAuthorities;
 import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.RosterupUserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Arrays;
 
+/**
+ * Authenticates requests carrying an access token. Routes in {@link SecurityConfig#PUBLIC_ENDPOINTS}
+ * are skipped entirely, so a stale {@code Authorization} header on them is never parsed.
+ * The time spent authenticating every other request is recorded as
+ * {@code rosterup.jwt.filter}, tagged with the API route and the outcome.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String TIMER_NAME = "rosterup.jwt.filter";
+    private static final String API_PREFIX = "/api/roster-up/v1/";
+    // Caps the route tag, which is taken from the request path
+    private static final int MAX_ROUTES = 100;
+
     private final JwtService jwtService;
     private final RosterupUserDetailsServiceImpl rosterupUserDetailsService;
+    private final boolean stateless;
+    private final MeterRegistry meterRegistry;
+    private final RequestMatcher publicEndpoints = new OrRequestMatcher(Arrays.stream(SecurityConfig.PUBLIC_ENDPOINTS)
+            .map(AntPathRequestMatcher::antMatcher)
+            .toArray(RequestMatcher[]::new));
 
-    public JwtAuthenticationFilter(JwtService jwtService, RosterupUserDetailsServiceImpl rosterupUserDetailsService){
+    public JwtAuthenticationFilter(JwtService jwtService, RosterupUserDetailsServiceImpl rosterupUserDetailsService,
+                                   @Value("${jwt.stateless.enabled}") boolean stateless, MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.rosterupUserDetailsService = rosterupUserDetailsService;
+        this.stateless = stateless;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.config().meterFilter(
+                MeterFilter.maximumAllowableTags(TIMER_NAME, "route", MAX_ROUTES, MeterFilter.deny()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return publicEndpoints.matches(request);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            outcome = authenticate(request);
+        } finally {
+            sample.stop(meterRegistry.timer(TIMER_NAME, "route", route(request), "outcome", outcome));
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Authenticates the request from its bearer token, if it carries a valid access token.
+     * @return the outcome of the attempt, used as a metric tag.
+     */
+    private String authenticate(HttpServletRequest request) {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
+        final VerifiedToken jwt;
         final String username;
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            filterChain.doFilter(request, response);
-            return;
+            return "no_token";
         }
-        jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = rosterupUserDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(jwt, userDetails) && jwtService.isTokenNonRevokedOrNonExpired(jwt)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        jwt = jwtService.verify(authHeader.substring(7));
+        username = jwt.getSubject();
+        if (username == null || !jwtService.isAccessToken(jwt)
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return "skipped";
         }
-        filterChain.doFilter(request, response);
+        UserDetails userDetails = stateless
+                ? userDetailsFromClaims(jwt)
+                : rosterupUserDetailsService.loadUserByUsername(username);
+        boolean tokenValid = stateless
+                ? jwtService.isTokenNonRevokedOrNonExpired(jwt)
+                : jwtService.isTokenValid(jwt, userDetails);
+        if (!tokenValid) {
+            return "rejected";
+        }
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        return "authenticated";
+    }
+
+    /**
+     * @return the API resource of the request, e.g. {@code /api/roster-up/v1/tenants}, without
+     * ids or sub-resources; {@code other} for paths outside the API.
+     */
+    private static String route(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(API_PREFIX)) {
+            return "other";
+        }
+        int resourceEnd = path.indexOf('/', API_PREFIX.length());
+        return resourceEnd < 0 ? path : path.substring(0, resourceEnd);
+    }
+
+    /**
+     * Builds the principal from the verified subject and roles claims, without loading the user.
+     * Used in stateless mode, where the token lifetime bounds how stale those claims can be.
+     */
+    private UserDetails userDetailsFromClaims(VerifiedToken jwt) {
+        return User.withUsername(jwt.getSubject())
+                .password("")
+                .authorities(RoleAuthorities.of(jwt.getRoles()))
+                .build();
     }
 }
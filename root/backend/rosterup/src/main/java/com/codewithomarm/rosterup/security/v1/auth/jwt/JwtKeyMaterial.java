@@ -0,0 +1,125 @@
+package com.codewithomarm.rosterup.security.v1.auth.jwt;
+
+import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable signing key, verification keys and the {@link JwtParser} bound to them. All of it
+ * is thread-safe, so a single instance is shared by every sign and verify call until the keys
+ * are rotated or reloaded.
+ * Tokens carrying a {@code kid} header are verified with the public key of that id; tokens
+ * without one are verified with the HMAC secret, if there is one.
+ */
+public final class JwtKeyMaterial {
+
+    private final Key signingKey;
+    private final SignatureAlgorithm signatureAlgorithm;
+    private final String signingKeyId;
+    private final Map<String, PublicKey> publicKeys;
+    private final Key hmacKey;
+    private final JwtParser parser;
+
+    private JwtKeyMaterial(Key signingKey, SignatureAlgorithm signatureAlgorithm, String signingKeyId,
+                           Map<String, PublicKey> publicKeys, Key hmacKey) {
+        this.signingKey = signingKey;
+        this.signatureAlgorithm = signatureAlgorithm;
+        this.signingKeyId = signingKeyId;
+        this.publicKeys = Collections.unmodifiableMap(new LinkedHashMap<>(publicKeys));
+        this.hmacKey = hmacKey;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveVerificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Builds HS256 key material from a Base64 encoded HMAC secret.
+     * @param base64Secret The Base64 encoded secret.
+     * @return the {@link JwtKeyMaterial} for the given secret.
+     */
+    public static JwtKeyMaterial fromBase64Secret(String base64Secret) {
+        Key hmacKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+        return new JwtKeyMaterial(hmacKey, SignatureAlgorithm.HS256, null, Map.of(), hmacKey);
+    }
+
+    /**
+     * Builds asymmetric key material. Tokens are signed with the given private key and stamped
+     * with its id; every public key, including the signing one, is accepted for verification.
+     * @param signingKeyId The id of the signing key, sent as the {@code kid} header.
+     * @param signingKey The private key used to sign new tokens.
+     * @param publicKeys The public keys accepted for verification, by key id.
+     * @param base64Secret The Base64 encoded HMAC secret still accepted for tokens without a
+     *                     {@code kid}, or {@code null} to reject them.
+     * @return the {@link JwtKeyMaterial} for the given keys.
+     */
+    public static JwtKeyMaterial fromKeyPairs(String signingKeyId, Key signingKey, Map<String, PublicKey> publicKeys,
+                                              String base64Secret) {
+        Key hmacKey = base64Secret == null ? null : Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+        return new JwtKeyMaterial(signingKey, signatureAlgorithmFor(publicKeys.get(signingKeyId)), signingKeyId,
+                publicKeys, hmacKey);
+    }
+
+    /**
+     * @param publicKey An RSA or P-256 EC public key.
+     * @return the JWS algorithm used with keys of that type.
+     * @throws IllegalArgumentException if the key is of any other type.
+     */
+    public static SignatureAlgorithm signatureAlgorithmFor(PublicKey publicKey) {
+        if (publicKey instanceof RSAPublicKey) {
+            return SignatureAlgorithm.RS256;
+        }
+        if (publicKey instanceof ECPublicKey ecPublicKey
+                && ecPublicKey.getParams().getCurve().getField().getFieldSize() == 256) {
+            return SignatureAlgorithm.ES256;
+        }
+        throw new IllegalArgumentException("Unsupported JWT signing key: " + publicKey.getAlgorithm()
+                + ", expected an RSA or P-256 EC key");
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    public SignatureAlgorithm getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    /**
+     * @return the {@code kid} header of newly signed tokens, or {@code null} for HS256 tokens.
+     */
+    public String getSigningKeyId() {
+        return signingKeyId;
+    }
+
+    /**
+     * @return the public verification keys by key id; empty for HS256 key material.
+     */
+    public Map<String, PublicKey> getPublicKeys() {
+        return publicKeys;
+    }
+
+    public JwtParser getParser() {
+        return parser;
+    }
+
+    private Key resolveVerificationKey(String keyId) {
+        Key key = keyId == null ? hmacKey : publicKeys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("No verification key for key id " + keyId);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,141 @@
+package com.codewithomarm.rosterup.security.v1.auth.jwt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the current {@link JwtKeyMaterial}.
+ * Without a keystore, tokens are signed with HS256 using {@code jwt.secret}. With a PKCS12
+ * keystore configured in {@code jwt.keystore.location}, tokens are signed with RS256 or ES256
+ * and every RSA or P-256 EC key in the keystore is accepted for verification, its alias being
+ * the {@code kid}. The signing key is the private key whose certificate is currently valid and
+ * was most recently issued, so a rotation window is opened by adding a key with a future
+ * {@code notBefore}: it is published right away and signs from that date on, while the previous
+ * key keeps verifying until it is removed from the keystore. The keystore is reloaded every
+ * {@code jwt.keystore.reload-interval-ms}.
+ */
+@Component
+public class JwtKeyProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyProvider.class);
+
+    private static final String KEYSTORE_TYPE = "PKCS12";
+
+    private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+    private final String keyStoreLocation;
+    private final char[] keyStorePassword;
+    private final boolean acceptHmacTokens;
+    private final String jwtSecret;
+    private volatile JwtKeyMaterial current;
+
+    public JwtKeyProvider(@Value("${jwt.secret}") String jwtSecret,
+                          @Value("${jwt.keystore.location}") String keyStoreLocation,
+                          @Value("${jwt.keystore.password}") String keyStorePassword,
+                          @Value("${jwt.keystore.accept-hmac-tokens}") boolean acceptHmacTokens) {
+        this.jwtSecret = jwtSecret;
+        this.keyStoreLocation = keyStoreLocation;
+        this.keyStorePassword = keyStorePassword.toCharArray();
+        this.acceptHmacTokens = acceptHmacTokens;
+        this.current = load();
+    }
+
+    /**
+     * @return the key material currently used to sign and verify tokens.
+     */
+    public JwtKeyMaterial current() {
+        return current;
+    }
+
+    /**
+     * Re-reads the keystore, picking up added or removed keys and moving signing to a key whose
+     * validity has started. Keeps the current keys if the keystore cannot be read.
+     */
+    @Scheduled(fixedDelayString = "${jwt.keystore.reload-interval-ms}",
+            initialDelayString = "${jwt.keystore.reload-interval-ms}")
+    public void reload() {
+        if (!usesKeyStore()) {
+            return;
+        }
+        try {
+            JwtKeyMaterial reloaded = load();
+            if (!reloaded.getPublicKeys().equals(current.getPublicKeys())
+                    || !reloaded.getSigningKeyId().equals(current.getSigningKeyId())) {
+                logger.info("JWT keys reloaded, signing with key {} of {}", reloaded.getSigningKeyId(),
+                        reloaded.getPublicKeys().keySet());
+            }
+            this.current = reloaded;
+        } catch (IllegalStateException e) {
+            logger.error("Could not reload JWT keystore, keeping the current keys", e);
+        }
+    }
+
+    private boolean usesKeyStore() {
+        return keyStoreLocation != null && !keyStoreLocation.isBlank();
+    }
+
+    private JwtKeyMaterial load() {
+        if (!usesKeyStore()) {
+            return JwtKeyMaterial.fromBase64Secret(jwtSecret);
+        }
+        try (InputStream in = resourceLoader.getResource(keyStoreLocation).getInputStream()) {
+            KeyStore keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
+            keyStore.load(in, keyStorePassword);
+            return fromKeyStore(keyStore);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Could not load JWT keystore " + keyStoreLocation, e);
+        }
+    }
+
+    private JwtKeyMaterial fromKeyStore(KeyStore keyStore) throws GeneralSecurityException {
+        Date now = new Date();
+        Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        String signingKeyId = null;
+        Date signingKeyNotBefore = null;
+
+        for (String alias : Collections.list(keyStore.aliases())) {
+            Certificate certificate = keyStore.getCertificate(alias);
+            if (!(certificate instanceof X509Certificate x509Certificate)) {
+                continue;
+            }
+            PublicKey publicKey = x509Certificate.getPublicKey();
+            try {
+                JwtKeyMaterial.signatureAlgorithmFor(publicKey);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring keystore entry {}: {}", alias, e.getMessage());
+                continue;
+            }
+            publicKeys.put(alias, publicKey);
+
+            boolean validNow = !now.before(x509Certificate.getNotBefore()) && !now.after(x509Certificate.getNotAfter());
+            if (keyStore.isKeyEntry(alias) && validNow
+                    && (signingKeyNotBefore == null || x509Certificate.getNotBefore().after(signingKeyNotBefore))) {
+                signingKeyId = alias;
+                signingKeyNotBefore = x509Certificate.getNotBefore();
+            }
+        }
+
+        if (signingKeyId == null) {
+            throw new IllegalStateException("JWT keystore has no RSA or P-256 EC private key with a valid certificate");
+        }
+        Key signingKey = keyStore.getKey(signingKeyId, keyStorePassword);
+        return JwtKeyMaterial.fromKeyPairs(signingKeyId, signingKey, publicKeys, acceptHmacTokens ? jwtSecret : null);
+    }
+}
@@ -1,105 +1,142 @@
 package com.codewithomarm.rosterup.security.v1.auth.jwt;
 
-import com.codewithomarm.rosterup.security.v1.auth.model.Token;
-import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import com.codewithomarm.rosterup.security.v1.auth.service.revocation.TokenRevocationIndex;
+import com.codewithomarm.rosterup.security.v1.auth.service.token.TokenWriter;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
     @Value("${jwt.expirationMs}")
     private Long jwtExpirationMs;
     @Value("${jwt.refresh-token.expirationMs}")
     private Long jwtRefreshExpirationMs;
-
-    private final TokenRepository tokenRepository;
-
-    public JwtService(TokenRepository tokenRepository) {
-        this.tokenRepository = tokenRepository;
-    }
-
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    @Value("${jwt.stateless.enabled}")
+    private boolean jwtStatelessEnabled;
+    @Value("${jwt.stateless.max-token-age-ms}")
+    private Long jwtStatelessMaxTokenAgeMs;
+
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final TokenWriter tokenWriter;
+    private final JwtKeyProvider jwtKeyProvider;
+
+    public JwtService(TokenRevocationIndex tokenRevocationIndex, TokenWriter tokenWriter, JwtKeyProvider jwtKeyProvider) {
+        this.tokenRevocationIndex = tokenRevocationIndex;
+        this.tokenWriter = tokenWriter;
+        this.jwtKeyProvider = jwtKeyProvider;
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Parses the compact token and verifies its signature once.
+     * @param token The compact JWT received from the client.
+     * @return a {@link VerifiedToken} exposing the claims of the token.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or its signature is invalid.
+     */
+    public VerifiedToken verify(String token) {
+        return new VerifiedToken(token, extractAllClaims(token));
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return jwtKeyProvider.current()
+                .getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    public String generateToken(UserDetails userDetails) {
+    public IssuedToken generateToken(UserDetails userDetails) {
         Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("roles", userDetails.getAuthorities().stream()
+        extraClaims.put(VerifiedToken.ROLES_CLAIM, userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList()));
+        extraClaims.put(VerifiedToken.TOKEN_TYPE_CLAIM, VerifiedToken.ACCESS_TOKEN_TYPE);
         return generateToken(extraClaims, userDetails);
     }
 
-    public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpirationMs);
+    /**
+     * Issues an access token. In stateless mode its lifetime is capped at
+     * {@code jwt.stateless.max-token-age-ms}, which bounds how stale its roles can be, so its
+     * {@code exp} claim stays the only expiry that clients, the filter and introspection see.
+     */
+    public IssuedToken generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        long expirationMs = jwtStatelessEnabled ? Math.min(jwtExpirationMs, jwtStatelessMaxTokenAgeMs) : jwtExpirationMs;
+        return buildToken(extraClaims, userDetails, expirationMs);
     }
 
-    public String generateRefreshToken(UserDetails userDetails){
+    /**
+     * @param userDetails The user the token is issued to.
+     * @param accessToken The access token issued together with the refresh token. It is
+     *                    revoked when the refresh token is exchanged.
+     * @return the issued refresh token.
+     */
+    public IssuedToken generateRefreshToken(UserDetails userDetails, IssuedToken accessToken) {
         Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("roles", userDetails.getAuthorities().stream()
+        extraClaims.put(VerifiedToken.ACCESS_TOKEN_ID_CLAIM, accessToken.getTokenId());
+        extraClaims.put(VerifiedToken.ROLES_CLAIM, userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList()));
+        extraClaims.put(VerifiedToken.TOKEN_TYPE_CLAIM, VerifiedToken.REFRESH_TOKEN_TYPE);
         return buildToken(extraClaims, userDetails, jwtRefreshExpirationMs);
     }
 
-    private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, Long expirationMs) {
-        return Jwts.builder()
+    private IssuedToken buildToken(Map<String, Object> extraClaims, UserDetails userDetails, Long expirationMs) {
+        String tokenId = UUID.randomUUID().toString();
+        Date issuedAt = new Date(System.currentTimeMillis());
+        Date expiration = new Date(issuedAt.getTime() + expirationMs);
+        JwtKeyMaterial keyMaterial = jwtKeyProvider.current();
+        JwtBuilder builder = Jwts.builder();
+        if (keyMaterial.getSigningKeyId() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, keyMaterial.getSigningKeyId());
+        }
+        String compactToken = builder
                 .setClaims(extraClaims)
+                .setId(tokenId)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(getSignInKey(), io.jsonwebtoken.SignatureAlgorithm.HS256)
+                .setIssuedAt(issuedAt)
+                .setExpiration(expiration)
+                .signWith(keyMaterial.getSigningKey(), keyMaterial.getSignatureAlgorithm())
                 .compact();
+        return new IssuedToken(compactToken, tokenId, issuedAt, expiration);
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && isTokenNonRevokedOrNonExpired(token);
-    }
-
-    public boolean isTokenNonRevokedOrNonExpired(String token) {
-        return tokenRepository.findByToken(token)
-                .map(tokenEntity -> !tokenEntity.isRevoked() || !tokenEntity.isExpired())
-                .orElse(false);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Tells access tokens, which authenticate API requests, from refresh tokens. Tokens issued
+     * before the token type claim existed are classified by lifetime: only a token that lives
+     * no longer than {@code jwt.expirationMs} is an access token, so a legacy refresh token
+     * cannot be used to call the API.
+     * @param token The verified token.
+     * @return {@code true} if the token may authenticate a request.
+     */
+    public boolean isAccessToken(VerifiedToken token) {
+        if (token.getTokenType() != null) {
+            return VerifiedToken.ACCESS_TOKEN_TYPE.equals(token.getTokenType());
+        }
+        Date issuedAt = token.getIssuedAt();
+        Date expiration = token.getExpiration();
+        return issuedAt != null && expiration != null
+                && expiration.getTime() - issuedAt.getTime() <= jwtExpirationMs;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.getSubject().equals(userDetails.getUsername()) && isTokenNonRevokedOrNonExpired(token);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * @param token The verified token.
+     * @return {@code true} if the token has not expired, is not revoked, and has a row through
+     * which it can still be revoked (see {@link TokenWriter#isRecorded}).
+     */
+    public boolean isTokenNonRevokedOrNonExpired(VerifiedToken token) {
+        return !token.isExpired() && !tokenRevocationIndex.isRevoked(token.getTokenId())
+                && tokenWriter.isRecorded(token.getTokenId(), token.getIssuedAt());
     }
 }
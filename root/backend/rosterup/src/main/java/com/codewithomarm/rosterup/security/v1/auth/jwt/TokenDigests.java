@@ -0,0 +1,29 @@
+package com.codewithomarm.rosterup.security.v1.auth.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes fixed-length digests of compact tokens, so tokens can be indexed
+ * without keeping the bearer value itself.
+ */
+public final class TokenDigests {
+
+    private TokenDigests() {
+    }
+
+    /**
+     * @param compactToken The compact (serialized) JWT.
+     * @return the lowercase hex SHA-256 digest of the token.
+     */
+    public static String sha256Hex(String compactToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(compactToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
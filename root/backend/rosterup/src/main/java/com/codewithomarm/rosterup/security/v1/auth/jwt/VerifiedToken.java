@@ -0,0 +1,102 @@
+package com.codewithomarm.rosterup.security.v1.auth.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable view of a JWT whose signature has already been verified by {@link JwtService}.
+ * The compact token is parsed exactly once; every claim needed by the request pipeline is
+ * read from this object instead of re-parsing the token.
+ */
+public final class VerifiedToken {
+
+    static final String ROLES_CLAIM = "roles";
+    static final String TOKEN_TYPE_CLAIM = "token_type";
+    static final String ACCESS_TOKEN_ID_CLAIM = "ati";
+    static final String ACCESS_TOKEN_TYPE = "access";
+    static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    private final String compactToken;
+    private final String subject;
+    private final List<String> roles;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final String tokenType;
+    private final String accessTokenId;
+    private final String tokenId;
+
+    VerifiedToken(String compactToken, Claims claims) {
+        this.compactToken = compactToken;
+        this.tokenId = claims.getId() != null ? claims.getId() : TokenDigests.sha256Hex(compactToken);
+        this.subject = claims.getSubject();
+        this.roles = extractRoles(claims);
+        this.issuedAt = claims.getIssuedAt();
+        this.expiration = claims.getExpiration();
+        this.tokenType = claims.get(TOKEN_TYPE_CLAIM, String.class);
+        this.accessTokenId = claims.get(ACCESS_TOKEN_ID_CLAIM, String.class);
+    }
+
+    /**
+     * @return the compact (serialized) form of the token as received from the client.
+     */
+    public String getCompactToken() {
+        return compactToken;
+    }
+
+    /**
+     * @return the key under which the token is stored and revoked: its {@code jti} claim, or the
+     * SHA-256 digest of the compact token for tokens issued before the claim existed.
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * @return the token type claim, or {@code null} for tokens issued before the claim existed.
+     */
+    String getTokenType() {
+        return tokenType;
+    }
+
+    /**
+     * @return for a refresh token, the token id of the access token issued together with it;
+     * {@code null} for access tokens and for refresh tokens issued before the claim existed.
+     */
+    public String getAccessTokenId() {
+        return accessTokenId;
+    }
+
+    /**
+     * @return {@code true} if the expiration claim is in the past.
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    private static List<String> extractRoles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (roles instanceof Collection<?> collection) {
+            return collection.stream().map(String::valueOf).toList();
+        }
+        return List.of();
+    }
+}
@@ -1,5 +1,6 @@
 package com.codewithomarm.rosterup.security.v1.auth.model;
 
 public enum ETokenType {
-    BEARER
+    BEARER,
+    REFRESH
 }
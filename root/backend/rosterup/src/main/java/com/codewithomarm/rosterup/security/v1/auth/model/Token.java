@@ -2,16 +2,34 @@ package com.codewithomarm.rosterup.security.v1.auth.model;
 
 import com.codewithomarm.rosterup.security.v1.user.model.RosterupUser;
 import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tokens", schema = "auth")
+@Table(name = "tokens", schema = "auth",
+        indexes = {
+                @Index(name = "tokens_issued_at_idx", columnList = "issued_at"),
+                @Index(name = "tokens_revoked_at_idx", columnList = "revoked_at")
+        })
 public class Token {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "token", unique = true, nullable = false)
+    /**
+     * Lookup key of the token: its {@code jti} claim, or the SHA-256 digest of the compact
+     * token for rows created before tokens carried a {@code jti}.
+     */
+    @Column(name = "token_id", length = 64, unique = true)
+    private String tokenId;
+
+    /**
+     * Raw compact token. Only rows created before {@link #tokenId} existed carry it, until
+     * {@code TokenIdMigration} replaces it with its digest.
+     */
+    @Column(name = "token", unique = true)
     private String token;
 
     @Enumerated(EnumType.STRING)
@@ -23,6 +41,17 @@ public class Token {
     @Column(name = "expired", nullable = false)
     private boolean expired;
 
+    /**
+     * Database time at which the token was revoked, so other nodes can pick up recent
+     * revocations. Null for tokens revoked before the column existed.
+     */
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    @CreationTimestamp
+    @Column(name = "issued_at", updatable = false)
+    private LocalDateTime issuedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private RosterupUser rosterupUser;
@@ -30,8 +59,8 @@ public class Token {
     public Token() {
     }
 
-    public Token(String token, RosterupUser rosterupUser) {
-        this.token = token;
+    public Token(String tokenId, RosterupUser rosterupUser) {
+        this.tokenId = tokenId;
         this.rosterupUser = rosterupUser;
         this.revoked = false;
         this.expired = false;
@@ -45,6 +74,14 @@ public class Token {
         this.id = id;
     }
 
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
     public String getToken() {
         return token;
     }
@@ -77,6 +114,22 @@ public class Token {
         this.expired = expired;
     }
 
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(LocalDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    public LocalDateTime getIssuedAt() {
+        return issuedAt;
+    }
+
+    public void setIssuedAt(LocalDateTime issuedAt) {
+        this.issuedAt = issuedAt;
+    }
+
     public RosterupUser getRosterupUser() {
         return rosterupUser;
     }
@@ -0,0 +1,12 @@
+package com.codewithomarm.rosterup.security.v1.auth.repository;
+
+import com.codewithomarm.rosterup.security.v1.auth.model.ETokenType;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a revoked {@code auth.tokens} row needed to keep it in the revocation index
+ * until it expires.
+ */
+public record RevokedToken(String tokenId, ETokenType tokenType, LocalDateTime issuedAt) {
+}
@@ -1,17 +1,82 @@
 package com.codewithomarm.rosterup.security.v1.auth.repository;
 
+import com.codewithomarm.rosterup.security.v1.auth.model.ETokenType;
 import com.codewithomarm.rosterup.security.v1.auth.model.Token;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface TokenRepository extends JpaRepository<Token, Long> {
-    @Query("SELECT t FROM Token t INNER JOIN RosterupUser u ON t.rosterupUser.id = u.id " +
-            "WHERE u.id = :id AND (t.expired = false OR t.revoked = false)")
-    List<Token> findAllValidTokenByUser(@Param("id") Long id);
+    @Query("SELECT new com.codewithomarm.rosterup.security.v1.auth.repository.RevokedToken(t.tokenId, t.tokenType, t.issuedAt) " +
+            "FROM Token t WHERE t.rosterupUser.id = :id AND t.revoked = false")
+    List<RevokedToken> findAllValidByUser(@Param("id") Long id);
 
-    Optional<Token> findByToken(String token);
+    @Modifying
+    @Transactional
+    @Query("UPDATE Token t SET t.revoked = true, t.expired = true, t.revokedAt = LOCAL DATETIME " +
+            "WHERE t.rosterupUser.id = :id AND t.tokenId IN :tokenIds")
+    int revokeAllByUserAndTokenIds(@Param("id") Long id, @Param("tokenIds") Collection<String> tokenIds);
+
+    /**
+     * Revokes a single token, only if it is of the given type and not revoked yet. Used to
+     * consume a refresh token exactly once, even under concurrent requests.
+     * @return {@code 1} if the token was revoked by this call, {@code 0} otherwise.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Token t SET t.revoked = true, t.expired = true, t.revokedAt = LOCAL DATETIME " +
+            "WHERE t.rosterupUser.id = :id AND t.tokenId = :tokenId AND t.tokenType = :tokenType AND t.revoked = false")
+    int revokeIfValid(@Param("id") Long id, @Param("tokenId") String tokenId, @Param("tokenType") ETokenType tokenType);
+
+    Optional<Token> findByTokenId(String tokenId);
+
+    boolean existsByTokenId(String tokenId);
+
+    @Query("SELECT t.tokenId FROM Token t WHERE t.tokenId IN :tokenIds AND t.revoked = true")
+    List<String> findRevokedTokenIds(@Param("tokenIds") Collection<String> tokenIds);
+
+    /**
+     * Finds the revoked tokens that have not expired yet: refresh tokens issued since
+     * {@code refreshIssuedAfter} and any other token issued since {@code accessIssuedAfter}.
+     */
+    @Query("SELECT new com.codewithomarm.rosterup.security.v1.auth.repository.RevokedToken(t.tokenId, t.tokenType, t.issuedAt) " +
+            "FROM Token t WHERE t.revoked = true AND t.tokenId IS NOT NULL AND (t.issuedAt >= :accessIssuedAfter " +
+            "OR (t.issuedAt >= :refreshIssuedAfter " +
+            "AND t.tokenType = com.codewithomarm.rosterup.security.v1.auth.model.ETokenType.REFRESH))")
+    List<RevokedToken> findUnexpiredRevoked(@Param("accessIssuedAfter") LocalDateTime accessIssuedAfter,
+                                            @Param("refreshIssuedAfter") LocalDateTime refreshIssuedAfter);
+
+    /**
+     * Finds the tokens revoked since the given database time, so a node can catch up on
+     * revocations it was not told about.
+     */
+    @Query("SELECT new com.codewithomarm.rosterup.security.v1.auth.repository.RevokedToken(t.tokenId, t.tokenType, t.issuedAt) " +
+            "FROM Token t WHERE t.revokedAt >= :revokedSince AND t.tokenId IS NOT NULL")
+    List<RevokedToken> findRevokedSince(@Param("revokedSince") LocalDateTime revokedSince);
+
+    List<Token> findTop500ByTokenIdIsNullAndTokenIsNotNull();
+
+    /**
+     * Finds the ids of tokens past their natural expiry: refresh tokens issued before
+     * {@code refreshIssuedBefore} and any other token issued before {@code accessIssuedBefore}.
+     * {@code refreshIssuedBefore} must not be later than {@code accessIssuedBefore}.
+     */
+    @Query("SELECT t.id FROM Token t WHERE t.issuedAt < :refreshIssuedBefore " +
+            "OR (t.issuedAt < :accessIssuedBefore AND (t.tokenType IS NULL " +
+            "OR t.tokenType <> com.codewithomarm.rosterup.security.v1.auth.model.ETokenType.REFRESH))")
+    List<Long> findExpiredIds(@Param("accessIssuedBefore") LocalDateTime accessIssuedBefore,
+                              @Param("refreshIssuedBefore") LocalDateTime refreshIssuedBefore, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Token t SET t.issuedAt = :issuedAt WHERE t.issuedAt IS NULL")
+    int setMissingIssuedAt(@Param("issuedAt") LocalDateTime issuedAt);
 }
@@ -2,98 +2,176 @@ package com.codewithomarm.rosterup.security.v1.auth.service.auth;
 
 import com.codewithomarm.rosterup.security.v1.auth.dto.request.AuthenticationRequest;
 import com.codewithomarm.rosterup.security.v1.auth.dto.response.AuthenticationResponse;
+import com.codewithomarm.rosterup.security.v1.auth.exception.InvalidRefreshTokenException;
+import com.codewithomarm.rosterup.security.v1.auth.jwt.IssuedToken;
 import com.codewithomarm.rosterup.security.v1.auth.jwt.JwtService;
+import com.codewithomarm.rosterup.security.v1.auth.jwt.VerifiedToken;
 import com.codewithomarm.rosterup.security.v1.auth.model.ETokenType;
-import com.codewithomarm.rosterup.security.v1.auth.model.Token;
+import com.codewithomarm.rosterup.security.v1.auth.repository.RevokedToken;
 import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import com.codewithomarm.rosterup.security.v1.auth.service.ratelimit.LoginRateLimiter;
+import com.codewithomarm.rosterup.security.v1.auth.service.revocation.TokenRevocationIndex;
+import com.codewithomarm.rosterup.security.v1.auth.service.token.TokenWriter;
 import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.RosterupUserDetailsImpl;
-import com.codewithomarm.rosterup.security.v1.user.model.RosterupUser;
-import com.codewithomarm.rosterup.security.v1.user.repository.RosterupUserRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.http.HttpHeaders;
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.RosterupUserDetailsServiceImpl;
+import io.jsonwebtoken.JwtException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class AuthenticationService {
 
-    private final RosterupUserRepository rosterupUserRepository;
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final RosterupUserDetailsServiceImpl rosterupUserDetailsService;
     private final TokenRepository tokenRepository;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final TokenWriter tokenWriter;
+    private final LoginRateLimiter loginRateLimiter;
 
-    public AuthenticationService(RosterupUserRepository rosterupUserRepository, TokenRepository tokenRepository,
-                                 JwtService jwtService, AuthenticationManager authenticationManager) {
-        this.rosterupUserRepository = rosterupUserRepository;
+    public AuthenticationService(RosterupUserDetailsServiceImpl rosterupUserDetailsService,
+                                 TokenRepository tokenRepository, JwtService jwtService,
+                                 AuthenticationManager authenticationManager,
+                                 TokenRevocationIndex tokenRevocationIndex, TokenWriter tokenWriter,
+                                 LoginRateLimiter loginRateLimiter) {
+        this.rosterupUserDetailsService = rosterupUserDetailsService;
         this.tokenRepository = tokenRepository;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.tokenRevocationIndex = tokenRevocationIndex;
+        this.tokenWriter = tokenWriter;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
-    public AuthenticationResponse authenticate(AuthenticationRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
-        RosterupUser user = rosterupUserRepository.findByUsername(request.getUsername()).orElseThrow();
-        RosterupUserDetailsImpl userDetails = new RosterupUserDetailsImpl(user);
-        String jwtToken = jwtService.generateToken(userDetails);
-        String jwtRefreshToken = jwtService.generateRefreshToken(userDetails);
-        revokeAllUserTokens(user);
-        saveUserToken(user, jwtToken);
-        return new AuthenticationResponse(jwtToken, jwtRefreshToken);
+    /**
+     * Logs the user in. The user row and its roles are loaded at most once, by the
+     * authentication manager; the principal it returns carries everything needed to issue the
+     * tokens and record the session. Attempts from usernames or clients with too many recent
+     * failures are rejected by the {@link LoginRateLimiter} before the password is checked.
+     * @param request The credentials.
+     * @param clientIp The address of the client, used for rate limiting.
+     */
+    public AuthenticationResponse authenticate(AuthenticationRequest request, String clientIp) {
+        loginRateLimiter.acquire(request.getUsername(), clientIp);
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+            );
+        } catch (BadCredentialsException e) {
+            loginRateLimiter.recordFailure(request.getUsername(), clientIp);
+            throw e;
+        }
+        loginRateLimiter.recordSuccess(request.getUsername());
+        RosterupUserDetailsImpl userDetails = (RosterupUserDetailsImpl) authentication.getPrincipal();
+        revokeAllUserTokens(userDetails.getId());
+        return issueTokens(userDetails);
     }
 
-    private void revokeAllUserTokens(RosterupUser user) {
-        revokeAllUserTokens(user, tokenRepository);
-    }
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token. Each refresh
+     * token can be exchanged once: it is consumed with a single conditional UPDATE, and the
+     * access token issued with it is revoked. Presenting an already consumed or revoked refresh
+     * token is treated as theft and revokes every token of the user. The whole exchange runs in
+     * one transaction, which is kept when the theft revocation rejects the token.
+     * @param authorization The {@code Authorization} header carrying the refresh token, or
+     * {@code null} if the request has none.
+     * @return the new access and refresh tokens.
+     * @throws InvalidRefreshTokenException if the refresh token cannot be exchanged.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public AuthenticationResponse refreshToken(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            throw new InvalidRefreshTokenException("Missing bearer refresh token");
+        }
+        VerifiedToken refreshToken;
+        try {
+            refreshToken = jwtService.verify(authorization.substring(BEARER_PREFIX.length()));
+        } catch (JwtException e) {
+            throw new InvalidRefreshTokenException("Refresh token is invalid or expired");
+        }
+        if (jwtService.isAccessToken(refreshToken) || refreshToken.getSubject() == null) {
+            throw new InvalidRefreshTokenException("Token is not a refresh token");
+        }
 
-    static void revokeAllUserTokens(RosterupUser user, TokenRepository tokenRepository) {
-        List<Token> validUserTokens = tokenRepository.findAllValidTokenByUser(user.getId());
-        if (validUserTokens.isEmpty()) {
-            return;
+        RosterupUserDetailsImpl userDetails;
+        try {
+            userDetails = (RosterupUserDetailsImpl) rosterupUserDetailsService.loadUserByUsername(refreshToken.getSubject());
+        } catch (UsernameNotFoundException e) {
+            throw new InvalidRefreshTokenException("Refresh token user no longer exists");
+        }
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked() || !userDetails.isAccountNonExpired()) {
+            throw new InvalidRefreshTokenException("User account is disabled, locked or expired");
         }
-        validUserTokens.forEach(token -> {
-            token.setRevoked(true);
-            token.setExpired(true);
-        });
-        tokenRepository.saveAll(validUserTokens);
+
+        Long userId = userDetails.getId();
+        // A token issued moments ago may still be waiting in the write-behind queue
+        tokenWriter.flushPending(userId);
+        if (tokenRepository.revokeIfValid(userId, refreshToken.getTokenId(), ETokenType.REFRESH) == 0) {
+            if (tokenRepository.existsByTokenId(refreshToken.getTokenId())) {
+                revokeAllUserTokens(userId);
+                throw new InvalidRefreshTokenException("Refresh token has already been used or revoked");
+            }
+            throw new InvalidRefreshTokenException("Unknown refresh token");
+        }
+
+        // The paired access token was issued together with the refresh token
+        LocalDateTime issuedAt = refreshToken.getIssuedAt() != null
+                ? LocalDateTime.ofInstant(refreshToken.getIssuedAt().toInstant(), ZoneId.systemDefault())
+                : null;
+        List<RevokedToken> rotatedTokens = new ArrayList<>();
+        rotatedTokens.add(new RevokedToken(refreshToken.getTokenId(), ETokenType.REFRESH, issuedAt));
+        if (refreshToken.getAccessTokenId() != null) {
+            tokenRepository.revokeAllByUserAndTokenIds(userId, List.of(refreshToken.getAccessTokenId()));
+            rotatedTokens.add(new RevokedToken(refreshToken.getAccessTokenId(), ETokenType.BEARER, issuedAt));
+        }
+        tokenRevocationIndex.revokeAll(rotatedTokens);
+
+        return issueTokens(userDetails);
     }
 
-    private void saveUserToken(RosterupUser user, String jwtToken) {
-        Token token = new Token();
-        token.setToken(jwtToken);
-        token.setTokenType(ETokenType.BEARER);
-        token.setRevoked(false);
-        token.setExpired(false);
-        token.setRosterupUser(user);
-        tokenRepository.save(token);
+    private AuthenticationResponse issueTokens(RosterupUserDetailsImpl userDetails) {
+        IssuedToken accessToken = jwtService.generateToken(userDetails);
+        IssuedToken refreshToken = jwtService.generateRefreshToken(userDetails, accessToken);
+        tokenWriter.save(userDetails.getId(), accessToken, ETokenType.BEARER);
+        tokenWriter.save(userDetails.getId(), refreshToken, ETokenType.REFRESH);
+        return new AuthenticationResponse(accessToken.getCompactToken(), refreshToken.getCompactToken());
     }
 
-    public void refreshToken(HttpServletRequest request, HttpServletResponse response) throws IOException {
-        final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-        final String refreshToken;
-        final String username;
-        if (authHeader==null || !authHeader.startsWith("Bearer ")) {
-            return;
-        }
-        refreshToken = authHeader.substring(7);
-        username = jwtService.extractUsername(refreshToken);
-        if (username != null) {
-            RosterupUser user = rosterupUserRepository.findByUsername(username).orElseThrow();
-            RosterupUserDetailsImpl userDetails = new RosterupUserDetailsImpl(user);
-            if (jwtService.isTokenValid(refreshToken, userDetails)) {
-                String accessToken = jwtService.generateToken(userDetails);
-                revokeAllUserTokens(user);
-                saveUserToken(user, accessToken);
-                AuthenticationResponse authenticationResponse = new AuthenticationResponse(accessToken, refreshToken);
-                new ObjectMapper().writeValue(response.getOutputStream(), authenticationResponse);
-            }
+    private void revokeAllUserTokens(Long userId) {
+        revokeAllUserTokens(userId, tokenRepository, tokenWriter, tokenRevocationIndex);
+    }
+
+    /**
+     * Revokes every active token of the user, including tokens not yet written by the
+     * {@link TokenWriter}, and records the revocation in the {@link TokenRevocationIndex}.
+     * Stored tokens take two statements: a SELECT of the active tokens, whose ids and expiries
+     * the index needs, and a single UPDATE revoking them by id. Postgres could do both in one
+     * {@code UPDATE ... RETURNING}, but JPQL cannot express it and H2 does not support it.
+     * @return the number of revoked tokens.
+     */
+    static int revokeAllUserTokens(Long userId, TokenRepository tokenRepository, TokenWriter tokenWriter,
+                                   TokenRevocationIndex tokenRevocationIndex) {
+        // Pending tokens first: a token written after this point is found by the query below
+        List<RevokedToken> revokedTokens = new ArrayList<>(tokenWriter.revokePending(userId));
+        List<RevokedToken> validUserTokens = tokenRepository.findAllValidByUser(userId);
+        if (!validUserTokens.isEmpty()) {
+            tokenRepository.revokeAllByUserAndTokenIds(userId, validUserTokens.stream().map(RevokedToken::tokenId).toList());
+            revokedTokens.addAll(validUserTokens);
         }
+        tokenRevocationIndex.revokeAll(revokedTokens);
+        return revokedTokens.size();
     }
 }
@@ -1,7 +1,10 @@
 package com.codewithomarm.rosterup.security.v1.auth.service.auth;
 
 import com.codewithomarm.rosterup.security.v1.auth.jwt.JwtService;
+import com.codewithomarm.rosterup.security.v1.auth.jwt.VerifiedToken;
 import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import com.codewithomarm.rosterup.security.v1.auth.service.revocation.TokenRevocationIndex;
+import com.codewithomarm.rosterup.security.v1.auth.service.token.TokenWriter;
 import com.codewithomarm.rosterup.security.v1.user.model.RosterupUser;
 import com.codewithomarm.rosterup.security.v1.user.repository.RosterupUserRepository;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,25 +21,32 @@ public class LogoutService implements LogoutHandler {
     private final RosterupUserRepository rosterupUserRepository;
     private final TokenRepository tokenRepository;
     private final JwtService jwtService;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final TokenWriter tokenWriter;
 
-    public LogoutService(RosterupUserRepository rosterupUserRepository, TokenRepository tokenRepository, JwtService jwtService) {
+    public LogoutService(RosterupUserRepository rosterupUserRepository, TokenRepository tokenRepository,
+                         JwtService jwtService, TokenRevocationIndex tokenRevocationIndex,
+                         TokenWriter tokenWriter) {
         this.rosterupUserRepository = rosterupUserRepository;
         this.tokenRepository = tokenRepository;
         this.jwtService = jwtService;
+        this.tokenRevocationIndex = tokenRevocationIndex;
+        this.tokenWriter = tokenWriter;
     }
 
     @Override
     public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            RosterupUser user = rosterupUserRepository.findByUsername(jwtService.extractUsername(token)).orElseThrow();
+            VerifiedToken token = jwtService.verify(authHeader.substring(7));
+            RosterupUser user = rosterupUserRepository.findByUsername(token.getSubject()).orElseThrow();
             revokeAllUserTokens(user);
         }
         SecurityContextHolder.clearContext();
     }
 
     private void revokeAllUserTokens(RosterupUser user) {
-        AuthenticationService.revokeAllUserTokens(user, tokenRepository);
+        AuthenticationService.revokeAllUserTokens(user.getId(), tokenRepository, tokenWriter,
+                tokenRevocationIndex);
     }
 }
@@ -0,0 +1,170 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.introspection;
+
+import com.codewithomarm.rosterup.security.v1.auth.dto.response.TokenIntrospectionResponse;
+import com.codewithomarm.rosterup.security.v1.auth.jwt.JwtService;
+import com.codewithomarm.rosterup.security.v1.auth.jwt.VerifiedToken;
+import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import com.codewithomarm.rosterup.security.v1.auth.service.revocation.TokenRevocationIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells other services whether a RosterUp token is still active (RFC 7662). A token is active
+ * when its signature verifies, it has not expired and it has not been revoked, neither in the
+ * local {@link TokenRevocationIndex} nor in {@code auth.tokens}.
+ * <p>
+ * Active results are cached by compact token for at most {@code jwt.introspection.cache-ttl}
+ * and never past the token's expiry, so repeated checks skip signature verification and the
+ * database. Every hit is re-checked against the revocation index, which drops the entry as
+ * soon as this node learns of the revocation. Inactive results are not cached.
+ */
+@Service
+public class TokenIntrospectionService {
+
+    private static final String CACHE_NAME = "rosterup.token-introspection";
+
+    private final JwtService jwtService;
+    private final TokenRepository tokenRepository;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final Cache<String, ActiveToken> activeTokens;
+
+    public TokenIntrospectionService(JwtService jwtService, TokenRepository tokenRepository,
+                                     TokenRevocationIndex tokenRevocationIndex, MeterRegistry meterRegistry,
+                                     @Value("${jwt.introspection.cache-maximum-size}") long maximumSize,
+                                     @Value("${jwt.introspection.cache-ttl}") Duration ttl) {
+        this.jwtService = jwtService;
+        this.tokenRepository = tokenRepository;
+        this.tokenRevocationIndex = tokenRevocationIndex;
+        this.activeTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ActiveTokenExpiry(ttl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, activeTokens, CACHE_NAME);
+    }
+
+    /**
+     * @param token The compact token to introspect.
+     * @return the introspection result for the token.
+     */
+    public TokenIntrospectionResponse introspect(String token) {
+        return introspectAll(List.of(token)).get(0);
+    }
+
+    /**
+     * Introspects several tokens at once. Tokens that are not cached are checked against the
+     * database with a single query.
+     * @param tokens The compact tokens to introspect.
+     * @return the introspection results, in the order of {@code tokens}.
+     */
+    public List<TokenIntrospectionResponse> introspectAll(List<String> tokens) {
+        TokenIntrospectionResponse[] responses = new TokenIntrospectionResponse[tokens.size()];
+        Map<Integer, VerifiedToken> toLookUp = new HashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            ActiveToken cached = activeTokens.getIfPresent(token);
+            if (cached != null) {
+                responses[i] = stillActive(token, cached) ? cached.response() : TokenIntrospectionResponse.inactive();
+                continue;
+            }
+            VerifiedToken verifiedToken = verifyOrNull(token);
+            if (verifiedToken == null || !jwtService.isTokenNonRevokedOrNonExpired(verifiedToken)) {
+                responses[i] = TokenIntrospectionResponse.inactive();
+            } else {
+                toLookUp.put(i, verifiedToken);
+            }
+        }
+
+        if (!toLookUp.isEmpty()) {
+            Set<String> tokenIds = new HashSet<>();
+            toLookUp.values().forEach(verifiedToken -> tokenIds.add(verifiedToken.getTokenId()));
+            // Catches revocations made on other nodes that have not reached the index yet
+            Set<String> revokedTokenIds = new HashSet<>(tokenRepository.findRevokedTokenIds(tokenIds));
+            toLookUp.forEach((i, verifiedToken) -> {
+                if (revokedTokenIds.contains(verifiedToken.getTokenId())) {
+                    responses[i] = TokenIntrospectionResponse.inactive();
+                    return;
+                }
+                TokenIntrospectionResponse response = activeResponse(verifiedToken);
+                activeTokens.put(verifiedToken.getCompactToken(), new ActiveToken(verifiedToken.getTokenId(),
+                        verifiedToken.getExpiration().getTime(), response));
+                responses[i] = response;
+            });
+        }
+        return new ArrayList<>(Arrays.asList(responses));
+    }
+
+    private boolean stillActive(String token, ActiveToken cached) {
+        if (cached.expiresAtMillis() > System.currentTimeMillis()
+                && !tokenRevocationIndex.isRevoked(cached.tokenId())) {
+            return true;
+        }
+        activeTokens.invalidate(token);
+        return false;
+    }
+
+    private VerifiedToken verifyOrNull(String token) {
+        try {
+            VerifiedToken verifiedToken = jwtService.verify(token);
+            // Tokens without an expiry are never issued by RosterUp
+            return verifiedToken.getExpiration() != null ? verifiedToken : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private TokenIntrospectionResponse activeResponse(VerifiedToken token) {
+        return new TokenIntrospectionResponse(
+                true,
+                token.getSubject(),
+                token.getRoles(),
+                TimeUnit.MILLISECONDS.toSeconds(token.getExpiration().getTime()),
+                token.getIssuedAt() != null ? TimeUnit.MILLISECONDS.toSeconds(token.getIssuedAt().getTime()) : null,
+                token.getTokenId(),
+                jwtService.isAccessToken(token) ? "access" : "refresh"
+        );
+    }
+
+    private record ActiveToken(String tokenId, long expiresAtMillis, TokenIntrospectionResponse response) {
+    }
+
+    /**
+     * Keeps an entry for the configured TTL, or until the token expires if that comes first.
+     */
+    private record ActiveTokenExpiry(long ttlNanos) implements Expiry<String, ActiveToken> {
+
+        @Override
+        public long expireAfterCreate(String token, ActiveToken activeToken, long currentTime) {
+            long untilExpiry = TimeUnit.MILLISECONDS.toNanos(activeToken.expiresAtMillis() - System.currentTimeMillis());
+            return Math.max(0, Math.min(ttlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, ActiveToken activeToken, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(token, activeToken, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, ActiveToken activeToken, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
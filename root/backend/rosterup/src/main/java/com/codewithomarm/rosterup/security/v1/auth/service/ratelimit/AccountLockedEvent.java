@@ -0,0 +1,18 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.ratelimit;
+
+/**
+ * Published by {@link LoginRateLimiter} when it locks an account, so other nodes can evict the
+ * principal and verified credentials they cache for it.
+ */
+public class AccountLockedEvent {
+
+    private final String username;
+
+    public AccountLockedEvent(String username) {
+        this.username = username;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
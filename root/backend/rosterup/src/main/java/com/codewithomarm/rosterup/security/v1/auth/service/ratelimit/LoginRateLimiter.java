@@ -0,0 +1,163 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.ratelimit;
+
+import com.codewithomarm.rosterup.security.v1.auth.exception.LoginRateLimitedException;
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.RosterupPrincipalCache;
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.VerifiedCredentialCache;
+import com.codewithomarm.rosterup.security.v1.user.repository.RosterupUserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Throttles failed logins per username and per client IP with {@link SlidingWindowCounter}s.
+ * Counters live in bounded caches and expire once their window is over, so memory stays
+ * bounded however many usernames or addresses are tried. {@link #acquire} runs before the
+ * password is checked, so a rejected attempt costs a cache lookup instead of a BCrypt round.
+ * Rejected attempts never count as failures; only wrong credentials do. Once a username
+ * collects {@code lock-after-failures} of them within {@code lock-window}, its account is
+ * locked for {@code lock-duration} and then unlocks on its own. The cached principal and
+ * verified credentials of a locked account are evicted here and, through an
+ * {@link AccountLockedEvent}, on every other node.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private final Cache<String, SlidingWindowCounter> failuresByUsername;
+    private final Cache<String, SlidingWindowCounter> failuresByClientIp;
+    private final Cache<String, SlidingWindowCounter> lockFailuresByUsername;
+    private final long windowMs;
+    private final long lockWindowMs;
+    private final Duration lockDuration;
+    private final int maxFailuresPerUsername;
+    private final int maxFailuresPerClientIp;
+    private final int lockAfterFailures;
+    private final RosterupUserRepository rosterupUserRepository;
+    private final RosterupPrincipalCache rosterupPrincipalCache;
+    private final VerifiedCredentialCache verifiedCredentialCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter rejections;
+    private final Counter locks;
+
+    public LoginRateLimiter(RosterupUserRepository rosterupUserRepository,
+                            RosterupPrincipalCache rosterupPrincipalCache,
+                            VerifiedCredentialCache verifiedCredentialCache,
+                            ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${security.login-rate-limit.window}") Duration window,
+                            @Value("${security.login-rate-limit.max-failures-per-username}") int maxFailuresPerUsername,
+                            @Value("${security.login-rate-limit.max-failures-per-client-ip}") int maxFailuresPerClientIp,
+                            @Value("${security.login-rate-limit.lock-after-failures}") int lockAfterFailures,
+                            @Value("${security.login-rate-limit.lock-window}") Duration lockWindow,
+                            @Value("${security.login-rate-limit.lock-duration}") Duration lockDuration,
+                            @Value("${security.login-rate-limit.max-tracked-keys}") long maxTrackedKeys) {
+        this.rosterupUserRepository = rosterupUserRepository;
+        this.rosterupPrincipalCache = rosterupPrincipalCache;
+        this.verifiedCredentialCache = verifiedCredentialCache;
+        this.eventPublisher = eventPublisher;
+        this.windowMs = window.toMillis();
+        this.lockWindowMs = lockWindow.toMillis();
+        this.lockDuration = lockDuration;
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.maxFailuresPerClientIp = maxFailuresPerClientIp;
+        this.lockAfterFailures = lockAfterFailures;
+        // A counter untouched for two windows has no weight left
+        this.failuresByUsername = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .build();
+        this.failuresByClientIp = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .build();
+        // Throttled usernames fail at most max-failures-per-username times per window, so the
+        // lock counts over its own, longer window
+        this.lockFailuresByUsername = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(lockWindow.multipliedBy(2))
+                .build();
+        this.rejections = Counter.builder("rosterup.login.rate-limited")
+                .description("Login attempts rejected before the password was checked")
+                .register(meterRegistry);
+        this.locks = Counter.builder("rosterup.login.accounts-locked")
+                .description("Accounts locked after too many failed logins")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a login attempt, or rejects it if the username or client IP has failed too often
+     * within the window. A rejected attempt is not recorded as a failure.
+     * @param username The username being logged in.
+     * @param clientIp The address of the client.
+     * @throws LoginRateLimitedException if the attempt is rejected.
+     */
+    public void acquire(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (exceeds(failuresByClientIp, clientIp, maxFailuresPerClientIp, now)) {
+            rejections.increment();
+            throw new LoginRateLimitedException("Too many failed logins from this client", retryAfterSeconds());
+        }
+        if (exceeds(failuresByUsername, username, maxFailuresPerUsername, now)) {
+            rejections.increment();
+            throw new LoginRateLimitedException("Too many failed logins for this user", retryAfterSeconds());
+        }
+    }
+
+    /**
+     * Records a login whose credentials were checked and found wrong.
+     * @param username The username being logged in.
+     * @param clientIp The address of the client.
+     */
+    public void recordFailure(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        counter(failuresByClientIp, clientIp).increment(now, windowMs);
+        counter(failuresByUsername, username).increment(now, windowMs);
+        double failures = counter(lockFailuresByUsername, username).increment(now, lockWindowMs);
+        // Only the attempt that crosses the threshold locks the account
+        if (failures >= lockAfterFailures && failures - 1 < lockAfterFailures) {
+            lock(username);
+        }
+    }
+
+    /**
+     * Clears the failures of a username after a successful login.
+     * @param username The username that logged in.
+     */
+    public void recordSuccess(String username) {
+        failuresByUsername.invalidate(username);
+        lockFailuresByUsername.invalidate(username);
+    }
+
+    private void lock(String username) {
+        if (rosterupUserRepository.lockByUsernameUntil(username, LocalDateTime.now().plus(lockDuration)) > 0) {
+            rosterupPrincipalCache.evict(username);
+            verifiedCredentialCache.evict(username);
+            eventPublisher.publishEvent(new AccountLockedEvent(username));
+            locks.increment();
+            logger.warn("Locked account {} for {} after {} failed logins", username, lockDuration, lockAfterFailures);
+        }
+    }
+
+    private boolean exceeds(Cache<String, SlidingWindowCounter> counters, String key, int limit, long now) {
+        SlidingWindowCounter counter = counters.getIfPresent(key);
+        return counter != null && counter.estimate(now, windowMs) >= limit;
+    }
+
+    private SlidingWindowCounter counter(Cache<String, SlidingWindowCounter> counters, String key) {
+        return counters.get(key, k -> new SlidingWindowCounter());
+    }
+
+    private long retryAfterSeconds() {
+        return Math.max(1, windowMs / 1000);
+    }
+}
@@ -0,0 +1,65 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free sliding-window event counter. The count over the last window is estimated from two
+ * fixed windows: the current one, plus the previous one weighted by how much of it the sliding
+ * window still covers. The window index and both counts are packed into a single {@code long}
+ * and updated with one CAS, so a counter costs a few bytes and never blocks.
+ */
+final class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 16;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Records one event.
+     * @return the estimated number of events in the sliding window, including this one.
+     */
+    double increment(long nowMs, long windowMs) {
+        long windowIndex = nowMs / windowMs;
+        while (true) {
+            long current = state.get();
+            long advanced = advance(current, windowIndex);
+            long next = currentCount(advanced) < COUNT_MASK ? advanced + 1 : advanced;
+            if (state.compareAndSet(current, next)) {
+                return estimate(next, nowMs, windowMs);
+            }
+        }
+    }
+
+    /**
+     * @return the estimated number of events in the sliding window ending now.
+     */
+    double estimate(long nowMs, long windowMs) {
+        return estimate(advance(state.get(), nowMs / windowMs), nowMs, windowMs);
+    }
+
+    private static double estimate(long state, long nowMs, long windowMs) {
+        double previousWeight = 1.0 - (double) (nowMs % windowMs) / windowMs;
+        return previousCount(state) * previousWeight + currentCount(state);
+    }
+
+    /**
+     * Moves the packed state to the given window, shifting or clearing the counts.
+     */
+    private static long advance(long state, long windowIndex) {
+        long stateWindow = state >>> (2 * COUNT_BITS);
+        if (stateWindow == windowIndex) {
+            return state;
+        }
+        long previous = stateWindow + 1 == windowIndex ? currentCount(state) : 0;
+        return (windowIndex << (2 * COUNT_BITS)) | (previous << COUNT_BITS);
+    }
+
+    private static long currentCount(long state) {
+        return state & COUNT_MASK;
+    }
+
+    private static long previousCount(long state) {
+        return (state >>> COUNT_BITS) & COUNT_MASK;
+    }
+}
@@ -0,0 +1,81 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.revocation;
+
+import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Periodically deletes tokens from {@code auth.tokens} once they are past their natural expiry,
+ * i.e. issued more than {@code jwt.expirationMs} ago, or {@code jwt.refresh-token.expirationMs}
+ * ago for refresh tokens.
+ * Revoked tokens are kept until then as well: the revocation index is rebuilt from this table,
+ * so deleting a revoked token that has not yet expired would make it valid again after a restart.
+ * Rows are deleted in bounded batches so a single run never holds long locks.
+ */
+@Component
+public class ExpiredTokenReaper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiredTokenReaper.class);
+
+    private final TokenRepository tokenRepository;
+    private final long jwtExpirationMs;
+    private final long jwtRefreshExpirationMs;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter reapedTokens;
+    private final Timer reapDuration;
+
+    public ExpiredTokenReaper(TokenRepository tokenRepository, MeterRegistry meterRegistry,
+                              @Value("${jwt.expirationMs}") long jwtExpirationMs,
+                              @Value("${jwt.refresh-token.expirationMs}") long jwtRefreshExpirationMs,
+                              @Value("${jwt.reaper.batch-size}") int batchSize,
+                              @Value("${jwt.reaper.max-batches-per-run}") int maxBatchesPerRun) {
+        this.tokenRepository = tokenRepository;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.jwtRefreshExpirationMs = Math.max(jwtRefreshExpirationMs, jwtExpirationMs);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.reapedTokens = Counter.builder("rosterup.tokens.reaped")
+                .description("Expired tokens deleted from auth.tokens")
+                .register(meterRegistry);
+        this.reapDuration = Timer.builder("rosterup.tokens.reap.duration")
+                .description("Duration of a token reaper run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.reaper.interval-ms}", initialDelayString = "${jwt.reaper.interval-ms}")
+    public void reapExpiredTokens() {
+        int reaped = reapDuration.record(this::reap);
+        if (reaped > 0) {
+            logger.info("Token reaper deleted {} expired tokens", reaped);
+        }
+    }
+
+    private int reap() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime accessIssuedBefore = now.minusNanos(jwtExpirationMs * 1_000_000L);
+        LocalDateTime refreshIssuedBefore = now.minusNanos(jwtRefreshExpirationMs * 1_000_000L);
+        int reaped = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Long> expiredTokenIds = tokenRepository.findExpiredIds(accessIssuedBefore,
+                    refreshIssuedBefore, PageRequest.of(0, batchSize));
+            if (expiredTokenIds.isEmpty()) {
+                break;
+            }
+            tokenRepository.deleteAllByIdInBatch(expiredTokenIds);
+            reapedTokens.increment(expiredTokenIds.size());
+            reaped += expiredTokenIds.size();
+        }
+        return reaped;
+    }
+}
@@ -0,0 +1,231 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.revocation;
+
+import com.codewithomarm.rosterup.security.v1.auth.service.ratelimit.AccountLockedEvent;
+import com.codewithomarm.rosterup.security.v1.auth.service.ratelimit.LoginRateLimiter;
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.RosterupPrincipalCache;
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.VerifiedCredentialCache;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Propagates token revocations and account locks between application nodes through Postgres
+ * {@code LISTEN/NOTIFY}.
+ * Revocations made on this node are announced with {@code pg_notify} once the transaction that
+ * revoked them has committed. A failed announcement is logged and does not fail the request;
+ * other nodes then only learn of the revocation from their periodic
+ * {@link TokenRevocationIndex#resync()}, up to {@code jwt.revocation.resync-interval-ms} later.
+ * Accounts locked by the {@link LoginRateLimiter} are announced on a second channel, so every
+ * node evicts the principal and verified credentials it caches for them; if that announcement
+ * is lost, other nodes hold those entries until their cache TTL runs out.
+ * A listener connection opened outside the pool applies what every node announces, and reloads
+ * the revocation index from the database each time that connection is (re)established.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.revocation.notify.enabled", havingValue = "true")
+public class TokenRevocationChannel implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationChannel.class);
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final String TOKEN_ID_SEPARATOR = ",";
+    private static final String RETAIN_UNTIL_SEPARATOR = "=";
+    // Keeps each payload below the 8000 byte NOTIFY limit, even for 64 character legacy token ids
+    private static final int TOKEN_IDS_PER_NOTIFICATION = 80;
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 5_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate notifyTransaction;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final RosterupPrincipalCache rosterupPrincipalCache;
+    private final VerifiedCredentialCache verifiedCredentialCache;
+    private final String channel;
+    private final String lockChannel;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public TokenRevocationChannel(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  TokenRevocationIndex tokenRevocationIndex,
+                                  RosterupPrincipalCache rosterupPrincipalCache,
+                                  VerifiedCredentialCache verifiedCredentialCache,
+                                  @Value("${jwt.revocation.notify.channel}") String channel,
+                                  @Value("${jwt.revocation.notify.lock-channel}") String lockChannel,
+                                  @Value("${spring.datasource.url}") String url,
+                                  @Value("${spring.datasource.username}") String username,
+                                  @Value("${spring.datasource.password}") String password) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid revocation channel name: " + channel);
+        }
+        if (!CHANNEL_NAME.matcher(lockChannel).matches()) {
+            throw new IllegalArgumentException("Invalid account lock channel name: " + lockChannel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.notifyTransaction = new TransactionTemplate(transactionManager);
+        // The revoking transaction has already committed, so the notification needs its own
+        this.notifyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tokenRevocationIndex = tokenRevocationIndex;
+        this.rosterupPrincipalCache = rosterupPrincipalCache;
+        this.verifiedCredentialCache = verifiedCredentialCache;
+        this.channel = channel;
+        this.lockChannel = lockChannel;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Announces tokens revoked on this node to every node listening on the channel, after the
+     * revoking transaction commits, or straight away if the revocation ran outside one.
+     * @param event The revocation event published by {@link TokenRevocationIndex}.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTokensRevoked(TokensRevokedEvent event) {
+        List<String> tokenIds = event.getRetainUntilByTokenId().entrySet().stream()
+                .map(entry -> entry.getKey() + RETAIN_UNTIL_SEPARATOR + entry.getValue())
+                .toList();
+        try {
+            notifyTransaction.executeWithoutResult(status -> {
+                for (int from = 0; from < tokenIds.size(); from += TOKEN_IDS_PER_NOTIFICATION) {
+                    int to = Math.min(from + TOKEN_IDS_PER_NOTIFICATION, tokenIds.size());
+                    String payload = String.join(TOKEN_ID_SEPARATOR, tokenIds.subList(from, to));
+                    jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload);
+                }
+            });
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Could not announce {} revoked tokens on channel {}", tokenIds.size(), channel, e);
+        }
+    }
+
+    /**
+     * Announces an account locked on this node to every node listening on the lock channel.
+     * @param event The lock event published by {@link LoginRateLimiter}.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountLocked(AccountLockedEvent event) {
+        try {
+            notifyTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, lockChannel, event.getUsername()));
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Could not announce the lock of account {} on channel {}", event.getUsername(), lockChannel, e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "token-revocation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            // A pooled connection would be held for good and could be handed back still listening
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                listen(connection);
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Token revocation listener lost its connection, reconnecting in {} ms",
+                        RECONNECT_DELAY_MS, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + channel);
+            statement.execute("LISTEN " + lockChannel);
+        }
+        // Anything revoked while the listener was not connected is picked up from the database
+        tokenRevocationIndex.reload();
+        logger.info("Token revocation listener subscribed to channels {} and {}", channel, lockChannel);
+
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+            if (notifications == null) {
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                handleNotification(notification.getName(), notification.getParameter());
+            }
+        }
+    }
+
+    /**
+     * Applies a notification announced by any node, this one included.
+     * @param channelName The channel the notification was sent on.
+     * @param payload The payload of the notification.
+     */
+    void handleNotification(String channelName, String payload) {
+        if (lockChannel.equals(channelName)) {
+            rosterupPrincipalCache.evict(payload);
+            verifiedCredentialCache.evict(payload);
+        } else {
+            tokenRevocationIndex.applyRevocations(parseRevocations(payload));
+        }
+    }
+
+    private Map<String, Long> parseRevocations(String payload) {
+        Map<String, Long> retainUntilByTokenId = new HashMap<>();
+        for (String entry : payload.split(TOKEN_ID_SEPARATOR)) {
+            int separator = entry.indexOf(RETAIN_UNTIL_SEPARATOR);
+            if (separator < 0) {
+                // Announced by a node that does not send expiries yet
+                retainUntilByTokenId.put(entry, tokenRevocationIndex.retainUntilUnknown());
+            } else {
+                retainUntilByTokenId.put(entry.substring(0, separator),
+                        Long.parseLong(entry.substring(separator + 1)));
+            }
+        }
+        return retainUntilByTokenId;
+    }
+}
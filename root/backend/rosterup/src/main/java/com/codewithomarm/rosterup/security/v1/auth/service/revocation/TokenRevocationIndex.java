@@ -0,0 +1,156 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.revocation;
+
+import com.codewithomarm.rosterup.security.v1.auth.model.ETokenType;
+import com.codewithomarm.rosterup.security.v1.auth.model.Token;
+import com.codewithomarm.rosterup.security.v1.auth.repository.RevokedToken;
+import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local index of revoked access tokens, keyed by token id (see {@link Token#getTokenId()}).
+ * It is loaded from {@code auth.tokens} at startup and kept current by the revocation paths,
+ * so the request filter can answer "is this token revoked" without a database round trip.
+ * Revocations made on other nodes arrive through {@link TokenRevocationChannel}; every
+ * {@code jwt.revocation.resync-interval-ms} the index also reads the tokens revoked since its
+ * last sync, which bounds how long a revocation whose announcement was lost stays unknown here.
+ * An entry is only kept until every token it may describe has expired on its own.
+ */
+@Component
+@DependsOn("tokenIdMigration")
+public class TokenRevocationIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationIndex.class);
+
+    private static final long PURGE_INTERVAL_MS = 60_000L;
+    // Covers clock skew between nodes and the database, and revocations committed late
+    private static final long RESYNC_OVERLAP_MS = 60_000L;
+
+    private final TokenRepository tokenRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long jwtExpirationMs;
+    private final long jwtRefreshExpirationMs;
+    private final Map<String, Long> revokedUntil = new ConcurrentHashMap<>();
+    private volatile long nextPurgeAt;
+    private volatile LocalDateTime syncedAt;
+
+    public TokenRevocationIndex(TokenRepository tokenRepository, ApplicationEventPublisher eventPublisher,
+                                @Value("${jwt.expirationMs}") long jwtExpirationMs,
+                                @Value("${jwt.refresh-token.expirationMs}") long jwtRefreshExpirationMs) {
+        this.tokenRepository = tokenRepository;
+        this.eventPublisher = eventPublisher;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.jwtRefreshExpirationMs = Math.max(jwtRefreshExpirationMs, jwtExpirationMs);
+    }
+
+    /**
+     * Adds every revoked token stored in the database that has not expired yet to the index,
+     * keeping each one until it expires. Revocations are never undone, so entries already known
+     * to this node are kept.
+     */
+    @PostConstruct
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        syncedAt = now;
+        List<RevokedToken> revokedTokens = tokenRepository.findUnexpiredRevoked(
+                now.minusNanos(jwtExpirationMs * 1_000_000L), now.minusNanos(jwtRefreshExpirationMs * 1_000_000L));
+        revokedTokens.forEach(token -> revokedUntil.merge(token.tokenId(), retainUntil(token), Math::max));
+        logger.info("Token revocation index loaded with {} revoked tokens", revokedUntil.size());
+    }
+
+    /**
+     * Adds the tokens revoked in the database since the previous sync.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.resync-interval-ms}",
+            initialDelayString = "${jwt.revocation.resync-interval-ms}")
+    public void resync() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> revokedTokens = tokenRepository.findRevokedSince(
+                syncedAt.minusNanos(RESYNC_OVERLAP_MS * 1_000_000L));
+        syncedAt = now;
+        revokedTokens.forEach(token -> revokedUntil.merge(token.tokenId(), retainUntil(token), Math::max));
+        purgeExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * @param tokenId The id of the token to check.
+     * @return {@code true} if the token has been revoked.
+     */
+    public boolean isRevoked(String tokenId) {
+        return revokedUntil.containsKey(tokenId);
+    }
+
+    /**
+     * Marks the given tokens as revoked and publishes a {@link TokensRevokedEvent} so other
+     * nodes can be told about the revocation. Each token is kept until it expires, according
+     * to its type and issue time.
+     * @param tokens The revoked tokens.
+     */
+    public void revokeAll(Collection<RevokedToken> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        Map<String, Long> retainUntilByTokenId = new HashMap<>();
+        tokens.forEach(token -> retainUntilByTokenId.merge(token.tokenId(), retainUntil(token), Math::max));
+        applyRevocations(retainUntilByTokenId);
+        eventPublisher.publishEvent(new TokensRevokedEvent(retainUntilByTokenId));
+    }
+
+    /**
+     * Marks the given tokens as revoked without publishing an event. Used for revocations
+     * that were announced by another node.
+     * @param retainUntilByTokenId The epoch millisecond until which each revoked token must be kept.
+     */
+    public void applyRevocations(Map<String, Long> retainUntilByTokenId) {
+        retainUntilByTokenId.forEach((tokenId, retainUntil) -> revokedUntil.merge(tokenId, retainUntil, Math::max));
+        purgeExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * @return the epoch millisecond until which a revoked token of unknown type and issue time
+     * must be kept, which is as long as any token lives.
+     */
+    long retainUntilUnknown() {
+        return System.currentTimeMillis() + jwtRefreshExpirationMs;
+    }
+
+    /**
+     * @return the number of revoked tokens currently held by the index.
+     */
+    public int size() {
+        return revokedUntil.size();
+    }
+
+    private long retainUntil(RevokedToken token) {
+        if (token.issuedAt() == null) {
+            return System.currentTimeMillis() + lifetimeMs(token.tokenType());
+        }
+        return token.issuedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + lifetimeMs(token.tokenType());
+    }
+
+    private long lifetimeMs(ETokenType tokenType) {
+        return tokenType == ETokenType.REFRESH ? jwtRefreshExpirationMs : jwtExpirationMs;
+    }
+
+    private void purgeExpired(long now) {
+        if (now < nextPurgeAt) {
+            return;
+        }
+        nextPurgeAt = now + PURGE_INTERVAL_MS;
+        revokedUntil.values().removeIf(retainUntil -> retainUntil < now);
+    }
+}
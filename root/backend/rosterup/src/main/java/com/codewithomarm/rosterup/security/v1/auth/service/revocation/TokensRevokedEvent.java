@@ -0,0 +1,22 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.revocation;
+
+import java.util.Map;
+
+/**
+ * Published by {@link TokenRevocationIndex} when tokens are revoked on this node.
+ */
+public class TokensRevokedEvent {
+
+    private final Map<String, Long> retainUntilByTokenId;
+
+    public TokensRevokedEvent(Map<String, Long> retainUntilByTokenId) {
+        this.retainUntilByTokenId = Map.copyOf(retainUntilByTokenId);
+    }
+
+    /**
+     * @return the epoch millisecond until which each revoked token must be kept, by token id.
+     */
+    public Map<String, Long> getRetainUntilByTokenId() {
+        return retainUntilByTokenId;
+    }
+}
@@ -0,0 +1,57 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.token;
+
+import com.codewithomarm.rosterup.security.v1.auth.jwt.IssuedToken;
+import com.codewithomarm.rosterup.security.v1.auth.model.ETokenType;
+import com.codewithomarm.rosterup.security.v1.auth.model.Token;
+import com.codewithomarm.rosterup.security.v1.auth.repository.RevokedToken;
+import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import com.codewithomarm.rosterup.security.v1.user.repository.RosterupUserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Inserts each issued token synchronously, in the caller's thread.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.write-behind.enabled", havingValue = "false", matchIfMissing = true)
+public class JpaTokenWriter implements TokenWriter {
+
+    private final TokenRepository tokenRepository;
+    private final RosterupUserRepository rosterupUserRepository;
+
+    public JpaTokenWriter(TokenRepository tokenRepository, RosterupUserRepository rosterupUserRepository) {
+        this.tokenRepository = tokenRepository;
+        this.rosterupUserRepository = rosterupUserRepository;
+    }
+
+    @Override
+    public void save(Long userId, IssuedToken issuedToken, ETokenType tokenType) {
+        Token token = new Token();
+        token.setTokenId(issuedToken.getTokenId());
+        token.setTokenType(tokenType);
+        token.setRevoked(false);
+        token.setExpired(false);
+        // Only the foreign key is needed, so the user is referenced without being loaded
+        token.setRosterupUser(rosterupUserRepository.getReferenceById(userId));
+        tokenRepository.save(token);
+    }
+
+    @Override
+    public List<RevokedToken> revokePending(Long userId) {
+        return List.of();
+    }
+
+    @Override
+    public void flushPending(Long userId) {
+        // Every token is written by save, so none is ever pending
+    }
+
+    @Override
+    public boolean isRecorded(String tokenId, Date issuedAt) {
+        // save inserts the row before the token is handed out
+        return true;
+    }
+}
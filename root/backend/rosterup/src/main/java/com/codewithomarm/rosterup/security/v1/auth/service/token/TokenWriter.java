@@ -0,0 +1,48 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.token;
+
+import com.codewithomarm.rosterup.security.v1.auth.jwt.IssuedToken;
+import com.codewithomarm.rosterup.security.v1.auth.model.ETokenType;
+import com.codewithomarm.rosterup.security.v1.auth.repository.RevokedToken;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Records issued access and refresh tokens in {@code auth.tokens}.
+ */
+public interface TokenWriter {
+
+    /**
+     * Records a newly issued token of the user.
+     * @param userId The ID of the user the token was issued to.
+     * @param issuedToken The issued token.
+     * @param tokenType The type of the issued token.
+     */
+    void save(Long userId, IssuedToken issuedToken, ETokenType tokenType);
+
+    /**
+     * Marks every token of the user that was accepted by {@link #save} but is not yet in the
+     * database as revoked, so it is stored revoked when it is written.
+     * @param userId The ID of the user whose pending tokens to revoke.
+     * @return the revoked pending tokens.
+     */
+    List<RevokedToken> revokePending(Long userId);
+
+    /**
+     * Writes every token of the user that was accepted by {@link #save} but may not be in the
+     * database yet, so that it can be looked up or updated by the caller. Writing a token that
+     * is already stored has no effect.
+     * @param userId The ID of the user whose pending tokens to write.
+     */
+    void flushPending(Long userId);
+
+    /**
+     * Tells whether an issued token is, or may still become, a row of {@code auth.tokens}.
+     * Revocation works on those rows, so a token that was lost before being written could
+     * never be revoked and must not be accepted.
+     * @param tokenId The id of the token.
+     * @param issuedAt When the token was issued.
+     * @return {@code false} only if the token should have been written by now but was not.
+     */
+    boolean isRecorded(String tokenId, Date issuedAt);
+}
@@ -0,0 +1,301 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.token;
+
+import com.codewithomarm.rosterup.security.v1.auth.jwt.IssuedToken;
+import com.codewithomarm.rosterup.security.v1.auth.model.ETokenType;
+import com.codewithomarm.rosterup.security.v1.auth.repository.RevokedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues issued tokens in memory and inserts them in JDBC batches from a background thread,
+ * so a login does not wait for its own INSERT. A queued token is valid as soon as it is issued;
+ * revoking a user's tokens also revokes the ones still queued through {@link #revokePending}.
+ * When the queue is full the token is inserted synchronously instead. The queue is drained
+ * completely when the application shuts down.
+ * The queue is not durable: tokens lost to a crash or a failed final insert never get a row,
+ * and so could never be revoked. {@link #isRecorded} therefore only accepts a token older than
+ * {@code jwt.write-behind.verify-after-ms} once its row is known to exist, checking the
+ * database once per token and node; tokens this node has written are known without a query.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.write-behind.enabled", havingValue = "true")
+public class WriteBehindTokenWriter implements TokenWriter, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindTokenWriter.class);
+
+    private static final String INSERT_TOKEN =
+            "INSERT INTO auth.tokens (token_id, token_type, revoked, expired, revoked_at, issued_at, user_id) " +
+            "VALUES (?, ?, ?, ?, CASE WHEN ? THEN LOCALTIMESTAMP END, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String REVOKE_TOKEN =
+            "UPDATE auth.tokens SET revoked = true, expired = true, revoked_at = LOCALTIMESTAMP " +
+            "WHERE token_id = ? AND revoked = false";
+    private static final String SELECT_TOKEN_EXISTS =
+            "SELECT EXISTS (SELECT 1 FROM auth.tokens WHERE token_id = ?)";
+    private static final long RETRY_DELAY_MS = 1_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<PendingToken> queue;
+    private final Map<Long, Set<PendingToken>> pendingByUser = new ConcurrentHashMap<>();
+    private final Set<String> pendingTokenIds = ConcurrentHashMap.newKeySet();
+    private final Cache<String, Boolean> recordedTokenIds;
+    private final int batchSize;
+    private final long maxDelayMs;
+    private final long verifyAfterMs;
+    private final DistributionSummary batchSizes;
+    private final Timer flushDuration;
+    private final Counter synchronousWrites;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public WriteBehindTokenWriter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                  @Value("${jwt.write-behind.queue-capacity}") int queueCapacity,
+                                  @Value("${jwt.write-behind.batch-size}") int batchSize,
+                                  @Value("${jwt.write-behind.max-delay-ms}") long maxDelayMs,
+                                  @Value("${jwt.write-behind.verify-after-ms}") long verifyAfterMs,
+                                  @Value("${jwt.write-behind.recorded-cache-maximum-size}") long recordedCacheMaximumSize,
+                                  @Value("${jwt.expirationMs}") long jwtExpirationMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayMs = maxDelayMs;
+        this.verifyAfterMs = verifyAfterMs;
+        this.recordedTokenIds = Caffeine.newBuilder()
+                .maximumSize(recordedCacheMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(jwtExpirationMs))
+                .build();
+        this.batchSizes = DistributionSummary.builder("rosterup.tokens.write-behind.batch.size")
+                .description("Tokens inserted per write-behind batch")
+                .register(meterRegistry);
+        this.flushDuration = Timer.builder("rosterup.tokens.write-behind.flush")
+                .description("Duration of a write-behind batch insert")
+                .register(meterRegistry);
+        this.synchronousWrites = Counter.builder("rosterup.tokens.write-behind.overflow")
+                .description("Tokens inserted synchronously because the write-behind queue was full")
+                .register(meterRegistry);
+        Gauge.builder("rosterup.tokens.write-behind.queue.depth", queue, Collection::size)
+                .description("Issued tokens waiting to be inserted")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(Long userId, IssuedToken issuedToken, ETokenType tokenType) {
+        PendingToken pendingToken = new PendingToken(userId, issuedToken.getTokenId(), tokenType,
+                new Timestamp(issuedToken.getIssuedAt().getTime()));
+        pendingByUser.compute(userId, (id, pendingTokens) -> {
+            Set<PendingToken> tokens = pendingTokens != null ? pendingTokens : ConcurrentHashMap.newKeySet();
+            tokens.add(pendingToken);
+            return tokens;
+        });
+        pendingTokenIds.add(pendingToken.tokenId);
+        if (!running || !queue.offer(pendingToken)) {
+            synchronousWrites.increment();
+            try {
+                flush(List.of(pendingToken));
+            } catch (RuntimeException e) {
+                removePending(pendingToken);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public List<RevokedToken> revokePending(Long userId) {
+        Set<PendingToken> pendingTokens = pendingByUser.get(userId);
+        if (pendingTokens == null) {
+            return List.of();
+        }
+        List<RevokedToken> revokedTokens = new ArrayList<>();
+        for (PendingToken pendingToken : pendingTokens) {
+            pendingToken.revoked = true;
+            revokedTokens.add(new RevokedToken(pendingToken.tokenId, pendingToken.tokenType,
+                    pendingToken.issuedAt.toLocalDateTime()));
+        }
+        return revokedTokens;
+    }
+
+    /**
+     * Inserts the user's queued tokens in the caller's thread and transaction. They stay queued,
+     * so if that transaction rolls back they are still written by the background thread; the
+     * insert of a token written twice is ignored.
+     */
+    @Override
+    public void flushPending(Long userId) {
+        Set<PendingToken> pendingTokens = pendingByUser.get(userId);
+        if (pendingTokens == null || pendingTokens.isEmpty()) {
+            return;
+        }
+        insert(new ArrayList<>(pendingTokens));
+    }
+
+    @Override
+    public boolean isRecorded(String tokenId, Date issuedAt) {
+        // A token issued moments ago may still be queued here or on another node
+        if (pendingTokenIds.contains(tokenId) || issuedAt == null
+                || System.currentTimeMillis() - issuedAt.getTime() < verifyAfterMs
+                || recordedTokenIds.getIfPresent(tokenId) != null) {
+            return true;
+        }
+        // Only found rows are cached, so a token whose insert is merely late is accepted once written
+        boolean recorded = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                SELECT_TOKEN_EXISTS, Boolean.class, tokenId));
+        if (recorded) {
+            recordedTokenIds.put(tokenId, Boolean.TRUE);
+        }
+        return recorded;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::writeLoop, "token-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Started before and stopped after the web server, so no login can queue behind the final drain
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<PendingToken> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                if (batch.isEmpty()) {
+                    PendingToken first = queue.poll(maxDelayMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Could not insert {} issued tokens, retrying in {} ms", batch.size(), RETRY_DELAY_MS, e);
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    break;
+                }
+            }
+        }
+        // A batch interrupted mid-retry gets one last attempt before the shutdown drain
+        if (!batch.isEmpty()) {
+            try {
+                flush(batch);
+            } catch (RuntimeException e) {
+                logger.error("Could not insert {} issued tokens on shutdown", batch.size(), e);
+            }
+        }
+    }
+
+    private void drain() {
+        List<PendingToken> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                flush(batch);
+            } catch (RuntimeException e) {
+                logger.error("Could not insert {} issued tokens on shutdown", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingToken> batch) {
+        flushDuration.record(() -> insert(batch));
+        batchSizes.record(batch.size());
+
+        // A revocation that raced with the insert above only flagged the queued token
+        List<Object[]> revokedAfterInsert = new ArrayList<>();
+        for (PendingToken pendingToken : batch) {
+            recordedTokenIds.put(pendingToken.tokenId, Boolean.TRUE);
+            removePending(pendingToken);
+            if (pendingToken.revoked) {
+                revokedAfterInsert.add(new Object[]{pendingToken.tokenId});
+            }
+        }
+        if (!revokedAfterInsert.isEmpty()) {
+            jdbcTemplate.batchUpdate(REVOKE_TOKEN, revokedAfterInsert);
+        }
+    }
+
+    private void insert(List<PendingToken> pendingTokens) {
+        jdbcTemplate.batchUpdate(INSERT_TOKEN, pendingTokens, pendingTokens.size(), (ps, pendingToken) -> {
+            ps.setString(1, pendingToken.tokenId);
+            ps.setString(2, pendingToken.tokenType.name());
+            ps.setBoolean(3, pendingToken.revoked);
+            ps.setBoolean(4, pendingToken.revoked);
+            ps.setBoolean(5, pendingToken.revoked);
+            ps.setTimestamp(6, pendingToken.issuedAt);
+            ps.setLong(7, pendingToken.userId);
+        });
+    }
+
+    private void removePending(PendingToken pendingToken) {
+        pendingTokenIds.remove(pendingToken.tokenId);
+        pendingByUser.computeIfPresent(pendingToken.userId, (userId, pendingTokens) -> {
+            pendingTokens.remove(pendingToken);
+            return pendingTokens.isEmpty() ? null : pendingTokens;
+        });
+    }
+
+    private static final class PendingToken {
+
+        private final Long userId;
+        private final String tokenId;
+        private final ETokenType tokenType;
+        private final Timestamp issuedAt;
+        private volatile boolean revoked;
+
+        private PendingToken(Long userId, String tokenId, ETokenType tokenType, Timestamp issuedAt) {
+            this.userId = userId;
+            this.tokenId = tokenId;
+            this.tokenType = tokenType;
+            this.issuedAt = issuedAt;
+        }
+    }
+}
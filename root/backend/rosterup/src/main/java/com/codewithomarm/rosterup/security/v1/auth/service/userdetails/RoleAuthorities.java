@@ -0,0 +1,58 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.userdetails;
+
+import com.codewithomarm.rosterup.security.v1.user.model.ERole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One shared, immutable {@link GrantedAuthority} per {@link ERole}. Principals reference these
+ * instances instead of building their own, so reading a user's authorities allocates nothing.
+ */
+public final class RoleAuthorities {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final Map<ERole, GrantedAuthority> BY_ROLE = new EnumMap<>(ERole.class);
+    private static final Map<String, GrantedAuthority> BY_AUTHORITY = new HashMap<>();
+
+    static {
+        for (ERole role : ERole.values()) {
+            GrantedAuthority authority = new SimpleGrantedAuthority(ROLE_PREFIX + role.name());
+            BY_ROLE.put(role, authority);
+            BY_AUTHORITY.put(authority.getAuthority(), authority);
+        }
+    }
+
+    private RoleAuthorities() {
+    }
+
+    /**
+     * @param role The role.
+     * @return the shared authority for the role, e.g. {@code ROLE_DEV} for {@link ERole#DEV}.
+     */
+    public static GrantedAuthority of(ERole role) {
+        return BY_ROLE.get(role);
+    }
+
+    /**
+     * Maps authority names, such as the roles claim of a token, to the shared instances.
+     * Names that match no {@link ERole} get a new authority of their own.
+     * @param authorities The authority names.
+     * @return the authorities, in the order of {@code authorities}.
+     */
+    public static List<GrantedAuthority> of(Collection<String> authorities) {
+        return authorities.stream()
+                .map(RoleAuthorities::ofAuthority)
+                .toList();
+    }
+
+    private static GrantedAuthority ofAuthority(String authority) {
+        GrantedAuthority shared = BY_AUTHORITY.get(authority);
+        return shared != null ? shared : new SimpleGrantedAuthority(authority);
+    }
+}
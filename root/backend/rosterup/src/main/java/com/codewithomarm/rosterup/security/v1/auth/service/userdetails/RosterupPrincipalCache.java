@@ -0,0 +1,60 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.userdetails;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of authenticated principals keyed by username.
+ * Hit, miss and size/time eviction counts are exported as {@code rosterup.principals} cache
+ * metrics; explicit evictions caused by user changes are counted separately.
+ */
+@Component
+public class RosterupPrincipalCache {
+
+    private static final String CACHE_NAME = "rosterup.principals";
+
+    private final Cache<String, RosterupUserDetailsImpl> principals;
+    private final Counter invalidations;
+
+    public RosterupPrincipalCache(MeterRegistry meterRegistry,
+                                  @Value("${security.principal-cache.maximum-size}") long maximumSize,
+                                  @Value("${security.principal-cache.ttl}") Duration ttl) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.invalidations = Counter.builder(CACHE_NAME + ".invalidations")
+                .description("Principals evicted because the user changed")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached principal for the username, loading it on a miss.
+     * @param username The username of the principal.
+     * @param loader Loads the principal when it is not cached.
+     * @return the principal for the given username.
+     */
+    public RosterupUserDetailsImpl get(String username, Function<String, RosterupUserDetailsImpl> loader) {
+        return principals.get(username, loader);
+    }
+
+    /**
+     * Removes the principal of the given user. Must be called whenever the password, roles,
+     * enabled flag or any lock/expiry flag of the user changes.
+     * @param username The username of the principal to evict.
+     */
+    public void evict(String username) {
+        principals.invalidate(username);
+        invalidations.increment();
+    }
+}
@@ -4,38 +4,51 @@ import com.codewithomarm.rosterup.security.v1.user.model.RosterupRole;
 import com.codewithomarm.rosterup.security.v1.user.model.RosterupUser;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.Set;
+import java.util.Comparator;
+import java.util.List;
 
 public class RosterupUserDetailsImpl implements UserDetails {
 
+    private final Long id;
     private final String username;
     @JsonIgnore
     private final String password;
     private final boolean accountNonExpired;
     private final boolean accountNonLocked;
+    private final LocalDateTime lockedUntil;
     private final boolean credentialsNonExpired;
     private final boolean enabled;
-    private final Set<RosterupRole> rosterupRoles;
+    // Built once, from the shared RoleAuthorities instances, since it is read on every authorization check
+    private final List<GrantedAuthority> authorities;
 
     public RosterupUserDetailsImpl(RosterupUser rosterupUser) {
+        this.id = rosterupUser.getId();
         this.username = rosterupUser.getUsername();
         this.password = rosterupUser.getPassword();
         this.accountNonExpired = rosterupUser.getAccountNonExpired();
         this.accountNonLocked = rosterupUser.getAccountNonLocked();
+        this.lockedUntil = rosterupUser.getLockedUntil();
         this.credentialsNonExpired = rosterupUser.getCredentialsNonExpired();
         this.enabled = rosterupUser.getEnabled();
-        this.rosterupRoles = rosterupUser.getRosterupRoles();
+        this.authorities = rosterupUser.getRosterupRoles().stream()
+                .map(RosterupRole::getName)
+                .distinct()
+                .sorted(Comparator.naturalOrder())
+                .map(RoleAuthorities::of)
+                .toList();
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return rosterupRoles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName().toString()))
-                .toList();
+        return authorities;
+    }
+
+    public Long getId() {
+        return id;
     }
 
     @Override
@@ -55,7 +68,8 @@ public class RosterupUserDetailsImpl implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return accountNonLocked;
+        // Evaluated on every call, so a cached principal unlocks as soon as its lock lifts
+        return accountNonLocked && (lockedUntil == null || !LocalDateTime.now().isBefore(lockedUntil));
     }
 
     @Override
@@ -2,7 +2,6 @@ package com.codewithomarm.rosterup.security.v1.auth.service.userdetails;
 
 import com.codewithomarm.rosterup.security.v1.user.model.RosterupUser;
 import com.codewithomarm.rosterup.security.v1.user.repository.RosterupUserRepository;
-import jakarta.transaction.Transactional;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -14,14 +13,20 @@ import java.util.Optional;
 public class RosterupUserDetailsServiceImpl implements UserDetailsService {
 
     private final RosterupUserRepository rosterupUserRepository;
+    private final RosterupPrincipalCache rosterupPrincipalCache;
 
-    public RosterupUserDetailsServiceImpl(RosterupUserRepository rosterupUserRepository) {
+    public RosterupUserDetailsServiceImpl(RosterupUserRepository rosterupUserRepository,
+                                          RosterupPrincipalCache rosterupPrincipalCache) {
         this.rosterupUserRepository = rosterupUserRepository;
+        this.rosterupPrincipalCache = rosterupPrincipalCache;
     }
 
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return rosterupPrincipalCache.get(username, this::loadFromRepository);
+    }
+
+    private RosterupUserDetailsImpl loadFromRepository(String username) {
         Optional<RosterupUser> user = rosterupUserRepository.findByUsername(username);
 
         if (user.isEmpty()) {
@@ -0,0 +1,104 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.userdetails;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Short-lived cache of username/password pairs that recently passed a full password check.
+ * Entries are keyed by username and hold an HMAC of the username and password under a key
+ * generated at startup, so neither the password nor a reusable hash of it is ever stored.
+ * A hit costs one HMAC and a constant-time comparison instead of a BCrypt round.
+ */
+@Component
+public class VerifiedCredentialCache {
+
+    private static final String CACHE_NAME = "rosterup.verified-credentials";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int HMAC_KEY_BYTES = 32;
+
+    private final Cache<String, VerifiedCredential> credentials;
+    private final Counter invalidations;
+    private final SecretKeySpec hmacKey;
+
+    public VerifiedCredentialCache(MeterRegistry meterRegistry,
+                                   @Value("${security.credential-cache.maximum-size}") long maximumSize,
+                                   @Value("${security.credential-cache.ttl}") Duration ttl) {
+        this.credentials = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.invalidations = Counter.builder(CACHE_NAME + ".invalidations")
+                .description("Verified credentials evicted because the user changed")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, credentials, CACHE_NAME);
+
+        byte[] key = new byte[HMAC_KEY_BYTES];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    /**
+     * @param username The presented username.
+     * @param password The presented password.
+     * @return the authentication produced when this exact pair was last verified, or
+     * {@code null} if the pair is not cached.
+     */
+    public Authentication get(String username, String password) {
+        VerifiedCredential credential = credentials.getIfPresent(username);
+        if (credential == null || !MessageDigest.isEqual(credential.digest(), digest(username, password))) {
+            return null;
+        }
+        return credential.authentication();
+    }
+
+    /**
+     * Remembers a username/password pair that has just passed a full password check.
+     * @param username The verified username.
+     * @param password The verified password.
+     * @param authentication The authentication returned for the pair.
+     */
+    public void put(String username, String password, Authentication authentication) {
+        credentials.put(username, new VerifiedCredential(digest(username, password), authentication));
+    }
+
+    /**
+     * Removes the verified credentials of the given user. Must be called whenever the password,
+     * roles, enabled flag or any lock/expiry flag of the user changes.
+     * @param username The username whose credentials to evict.
+     */
+    public void evict(String username) {
+        credentials.invalidate(username);
+        invalidations.increment();
+    }
+
+    private byte[] digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            // Separator keeps ("ab", "c") and ("a", "bc") from producing the same digest
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private record VerifiedCredential(byte[] digest, Authentication authentication) {
+    }
+}
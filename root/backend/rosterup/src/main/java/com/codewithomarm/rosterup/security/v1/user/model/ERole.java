@@ -5,5 +5,10 @@ public enum ERole {
     ADMIN,
     MANAGER,
     SUP,
-    USER
+    USER,
+    /**
+     * Internal services calling RosterUp on their own behalf, such as protected resources
+     * introspecting tokens.
+     */
+    SERVICE
 }
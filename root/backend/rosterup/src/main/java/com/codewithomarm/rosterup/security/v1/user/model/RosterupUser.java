@@ -37,6 +37,9 @@ public class RosterupUser {
     @Column(nullable = false)
     private Boolean enabled;
 
+    // Set by the login rate limiter; the account is locked until then, independently of accountNonLocked
+    private LocalDateTime lockedUntil;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -124,6 +127,14 @@ public class RosterupUser {
         this.enabled = enabled;
     }
 
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -5,12 +5,14 @@ import com.codewithomarm.rosterup.security.v1.user.model.RosterupRole;
 import com.codewithomarm.rosterup.security.v1.user.model.RosterupUser;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.Set;
 
@@ -22,10 +24,11 @@ import java.util.Set;
 public interface RosterupUserRepository extends JpaRepository<RosterupUser, Long> {
 
     /**
-     * Finds a {@link RosterupUser} by its username.
+     * Finds a {@link RosterupUser} by its username, fetching its roles in the same query.
      * @param username The username of the {@link RosterupUser} to find.
      * @return An {@link Optional} of the {@link RosterupUser} with the given username.
      */
+    @EntityGraph(attributePaths = "rosterupRoles")
     Optional<RosterupUser> findByUsername(String username);
 
     /**
@@ -61,6 +64,18 @@ public interface RosterupUserRepository extends JpaRepository<RosterupUser, Long
     @Query("UPDATE RosterupUser u SET u.password = :password WHERE u.id = :userId")
     void updatePassword(@Param("userId") Long userId, @Param("password") String password);
 
+    /**
+     * Locks the account of the {@link RosterupUser} with the given username until the given
+     * time, after which it unlocks on its own. {@code accountNonLocked} is left unchanged.
+     * @param username The username of the {@link RosterupUser} to lock.
+     * @param lockedUntil The time the lock lifts.
+     * @return the number of locked accounts, {@code 0} if no user has that username.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RosterupUser u SET u.lockedUntil = :lockedUntil WHERE u.username = :username")
+    int lockByUsernameUntil(@Param("username") String username, @Param("lockedUntil") LocalDateTime lockedUntil);
+
     /**
      * Finds all {@link RosterupUser}s with the given accountNonExpired value.
      * @param accountNonExpired The accountNonExpired value to search for.
@@ -1,5 +1,7 @@
 package com.codewithomarm.rosterup.security.v1.user.service;
 
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.RosterupPrincipalCache;
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.VerifiedCredentialCache;
 import com.codewithomarm.rosterup.security.v1.user.dto.request.CreateRosterupUserRequest;
 import com.codewithomarm.rosterup.security.v1.user.dto.request.RoleRequest;
 import com.codewithomarm.rosterup.security.v1.user.dto.request.UpdateRosterupUserRequest;
@@ -14,6 +16,7 @@ import com.codewithomarm.rosterup.security.v1.user.repository.RosterupRoleReposi
 import com.codewithomarm.rosterup.security.v1.user.repository.RosterupUserRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -27,13 +30,19 @@ public class RosterupServiceImpl implements IRosterupUserService {
     private final RosterupUserRepository rosterupUserRepository;
     private final RosterupRoleRepository rosterupRoleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RosterupPrincipalCache rosterupPrincipalCache;
+    private final VerifiedCredentialCache verifiedCredentialCache;
 
     public RosterupServiceImpl(RosterupUserRepository rosterupUserRepository,
                                RosterupRoleRepository rosterupRoleRepository,
-                               PasswordEncoder passwordEncoder) {
+                               PasswordEncoder passwordEncoder,
+                               RosterupPrincipalCache rosterupPrincipalCache,
+                               VerifiedCredentialCache verifiedCredentialCache) {
         this.rosterupUserRepository = rosterupUserRepository;
         this.rosterupRoleRepository = rosterupRoleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.rosterupPrincipalCache = rosterupPrincipalCache;
+        this.verifiedCredentialCache = verifiedCredentialCache;
     }
 
 
@@ -59,7 +68,11 @@ public class RosterupServiceImpl implements IRosterupUserService {
 
     @Override
     public void updatePassword(String userId, String newPassword) {
-
+        RosterupUser rosterupUser = rosterupUserRepository.findById(Long.parseLong(userId))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+        rosterupUserRepository.updatePassword(rosterupUser.getId(), passwordEncoder.encode(newPassword));
+        rosterupPrincipalCache.evict(rosterupUser.getUsername());
+        verifiedCredentialCache.evict(rosterupUser.getUsername());
     }
 
     @Override
@@ -133,7 +146,7 @@ public class RosterupServiceImpl implements IRosterupUserService {
 
     private Set<RosterupRole> validateAndFetchRoles(Set<RoleRequest> roles) {
         Set<String> validRoleNames = Set.of(ERole.DEV.name(), ERole.ADMIN.name(),
-                ERole.MANAGER.name(), ERole.SUP.name(), ERole.USER.name());
+                ERole.MANAGER.name(), ERole.SUP.name(), ERole.USER.name(), ERole.SERVICE.name());
         Set<String> requestedRoleNames = roles.stream().map(RoleRequest::getName)
                 .collect(Collectors.toSet());
 
@@ -1,16 +1,26 @@
 package com.codewithomarm.rosterup.tenant.v1.assembler;
 
 import com.codewithomarm.rosterup.tenant.v1.controller.TenantControllerV1;
+import com.codewithomarm.rosterup.tenant.v1.cursor.TenantCursors;
 import com.codewithomarm.rosterup.tenant.v1.dto.response.TenantResponse;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.SlicedModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.function.Function;
+
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
@@ -73,6 +83,89 @@ public class TenantPagedResourcesAssembler extends PagedResourcesAssembler<Tenan
         return pagedModel;
     }
 
+    public SlicedModel<EntityModel<TenantResponse>> toSlicedModel(Slice<TenantResponse> tenants) {
+        return toSlicedModel(tenants, pageable -> WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder
+                .methodOn(TenantControllerV1.class).getAllTenantsSlice(pageable)));
+    }
+
+    public SlicedModel<EntityModel<TenantResponse>> toSlicedModelWithNameSearch(Slice<TenantResponse> tenants, String name) {
+        return toSlicedModel(tenants, pageable -> WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder
+                .methodOn(TenantControllerV1.class).getTenantsByNameSlice(name, pageable)));
+    }
+
+    public SlicedModel<EntityModel<TenantResponse>> toSlicedModelWithActiveStatus(Slice<TenantResponse> tenants,
+                                                                                  Boolean isActive) {
+        return toSlicedModel(tenants, pageable -> WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder
+                .methodOn(TenantControllerV1.class).getTenantsByActiveStatusSlice(isActive, pageable)));
+    }
+
+    private SlicedModel<EntityModel<TenantResponse>> toSlicedModel(Slice<TenantResponse> tenants,
+                                                                   Function<Pageable, WebMvcLinkBuilder> linkToPage) {
+        SlicedModel<EntityModel<TenantResponse>> slicedModel = SlicedModel.of(
+                tenants.map(new TenantModelAssembler()::toModel).getContent(),
+                new SlicedModel.SliceMetadata(tenants.getSize(), tenants.getNumber()));
+
+        slicedModel.add(linkToPage.apply(tenants.getPageable()).withSelfRel());
+
+        if (tenants.hasNext()) {
+            slicedModel.add(linkToPage.apply(tenants.nextPageable()).withRel("next"));
+        }
+
+        if (tenants.hasPrevious()) {
+            slicedModel.add(linkToPage.apply(tenants.previousPageable()).withRel("prev"));
+        }
+
+        return slicedModel;
+    }
+
+    public CollectionModel<EntityModel<TenantResponse>> toCursorModel(Window<TenantResponse> tenants,
+                                                                      KeysetScrollPosition position, int size) {
+        return toCursorModel(tenants, position, cursor -> WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder
+                .methodOn(TenantControllerV1.class).getAllTenantsByCursor(cursor, size)));
+    }
+
+    public CollectionModel<EntityModel<TenantResponse>> toCursorModelWithActiveStatus(Window<TenantResponse> tenants,
+                                                                                      KeysetScrollPosition position,
+                                                                                      Boolean isActive, int size) {
+        return toCursorModel(tenants, position, cursor -> WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder
+                .methodOn(TenantControllerV1.class).getTenantsByActiveStatusAndCursor(isActive, cursor, size)));
+    }
+
+    /**
+     * Builds a window of tenants with self, next and prev links. The next and prev cursors
+     * continue after the last and before the first tenant of the window. {@link Window#hasNext()}
+     * tells whether more tenants follow in the direction the window was read: after it for a
+     * forward window, before it for a backward one. The opposite side always has tenants unless
+     * the window is the first one.
+     */
+    private CollectionModel<EntityModel<TenantResponse>> toCursorModel(
+            Window<TenantResponse> tenants, KeysetScrollPosition position,
+            Function<String, WebMvcLinkBuilder> linkToCursor) {
+        CollectionModel<EntityModel<TenantResponse>> cursorModel = CollectionModel.of(
+                tenants.map(new TenantModelAssembler()::toModel).getContent());
+
+        cursorModel.add(linkToCursor.apply(position.isInitial() ? null : TenantCursors.encode(position)).withSelfRel());
+
+        boolean hasNext = position.scrollsForward() ? tenants.hasNext() : !position.isInitial();
+        boolean hasPrevious = position.scrollsBackward() ? tenants.hasNext() : !position.isInitial();
+
+        if (hasNext) {
+            KeysetScrollPosition next = tenants.isEmpty()
+                    ? ScrollPosition.forward(position.getKeys())
+                    : ScrollPosition.forward(((KeysetScrollPosition) tenants.positionAt(tenants.size() - 1)).getKeys());
+            cursorModel.add(linkToCursor.apply(TenantCursors.encode(next)).withRel("next"));
+        }
+
+        if (hasPrevious) {
+            KeysetScrollPosition previous = tenants.isEmpty()
+                    ? ScrollPosition.backward(position.getKeys())
+                    : ScrollPosition.backward(((KeysetScrollPosition) tenants.positionAt(0)).getKeys());
+            cursorModel.add(linkToCursor.apply(TenantCursors.encode(previous)).withRel("prev"));
+        }
+
+        return cursorModel;
+    }
+
     private static class TenantModelAssembler implements RepresentationModelAssembler<TenantResponse,
             EntityModel<TenantResponse>> {
 
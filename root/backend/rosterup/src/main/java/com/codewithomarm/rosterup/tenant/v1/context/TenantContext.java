@@ -0,0 +1,41 @@
+package com.codewithomarm.rosterup.tenant.v1.context;
+
+/**
+ * Holds the tenant the current request was routed to by {@code TenantRoutingFilter}. The tenant
+ * is bound for the duration of the request only and is absent for requests made to the base
+ * domain, which are not tenant-specific.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<Long> CURRENT_TENANT_ID = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * @return the id of the tenant of the current request, or {@code null} if none is bound.
+     */
+    public static Long getTenantId() {
+        return CURRENT_TENANT_ID.get();
+    }
+
+    /**
+     * @return the id of the tenant of the current request.
+     * @throws IllegalStateException if the request was not routed to a tenant.
+     */
+    public static Long requireTenantId() {
+        Long tenantId = CURRENT_TENANT_ID.get();
+        if (tenantId == null) {
+            throw new IllegalStateException("No tenant is bound to the current request");
+        }
+        return tenantId;
+    }
+
+    public static void setTenantId(Long tenantId) {
+        CURRENT_TENANT_ID.set(tenantId);
+    }
+
+    public static void clear() {
+        CURRENT_TENANT_ID.remove();
+    }
+}
@@ -1,6 +1,7 @@
 package com.codewithomarm.rosterup.tenant.v1.controller;
 
 import com.codewithomarm.rosterup.tenant.v1.assembler.TenantPagedResourcesAssembler;
+import com.codewithomarm.rosterup.tenant.v1.cursor.TenantCursors;
 import com.codewithomarm.rosterup.tenant.v1.dto.request.CreateTenantRequest;
 import com.codewithomarm.rosterup.tenant.v1.dto.request.UpdateTenantRequest;
 import com.codewithomarm.rosterup.tenant.v1.dto.response.TenantResponse;
@@ -15,11 +16,16 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.SlicedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -79,6 +85,67 @@ public class TenantControllerV1 {
         return ResponseEntity.ok(allTenantsPagedModel);
     }
 
+    /**
+     * Retrieves all tenants as a slice. Unlike {@link #getAllTenants(Pageable)} it does not count
+     * the tenants, so the response has no totals, only whether a next page exists.
+     *
+     * @param pageable Pagination information.
+     * @return ResponseEntity containing a sliced model of tenant responses.
+     */
+    @Operation(summary = "Get a slice of all tenants", description = "Get a page of all tenants without the " +
+            "total count; use the paged endpoint when totals are needed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved slice of tenants",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SlicedModel.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid input",
+                    content = @Content)
+    })
+    @GetMapping("/slice")
+    public ResponseEntity<SlicedModel<EntityModel<TenantResponse>>> getAllTenantsSlice(
+            @PageableDefault(size = 20) Pageable pageable) {
+        logger.info("Controller: Fetching slice of all tenants with pagination: {}", pageable);
+
+        Slice<TenantResponse> allTenantsSliceResponse = tenantService.sliceAllTenants(pageable);
+
+        SlicedModel<EntityModel<TenantResponse>> allTenantsSlicedModel = tenantPagedResourcesAssembler.toSlicedModel(allTenantsSliceResponse);
+
+        logger.info("Controller: Retrieved {} tenants", allTenantsSliceResponse.getNumberOfElements());
+        return ResponseEntity.ok(allTenantsSlicedModel);
+    }
+
+    /**
+     * Retrieves all tenants with cursor-based pagination.
+     *
+     * @param cursor The continuation token from a previous response, or null for the first window.
+     * @param size The maximum number of tenants to return.
+     * @return ResponseEntity containing a window of tenant responses with next and prev links.
+     */
+    @Operation(summary = "Scroll all tenants", description = "Get a window of all tenants, ordered by ID, " +
+            "continuing from the cursor of a next or prev link")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved window of tenants",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CollectionModel.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or size parameter",
+                    content = @Content)
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CollectionModel<EntityModel<TenantResponse>>> getAllTenantsByCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        logger.info("Controller: Scrolling all tenants from cursor: {} with size: {}", cursor, size);
+
+        KeysetScrollPosition position = TenantCursors.decode(cursor);
+        Window<TenantResponse> allTenantsWindow = tenantService.getAllTenants(position, size);
+
+        CollectionModel<EntityModel<TenantResponse>> allTenantsCursorModel = tenantPagedResourcesAssembler
+                .toCursorModel(allTenantsWindow, position, size);
+
+        logger.info("Controller: Retrieved {} tenants", allTenantsWindow.size());
+        return ResponseEntity.ok(allTenantsCursorModel);
+    }
+
     /**
      * Retrieves a specific tenant by its ID.
      *
@@ -218,6 +285,35 @@ public class TenantControllerV1 {
         return ResponseEntity.ok(tenantsByNamePagedModel);
     }
 
+    /**
+     * Searches for tenants by name as a slice, without counting the matches.
+     *
+     * @param name The name to search for.
+     * @param pageable Pagination information.
+     * @return ResponseEntity containing a sliced model of tenant responses.
+     */
+    @Operation(summary = "Search a slice of tenants by name", description = "Search for tenants by name " +
+            "without the total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved slice of tenants",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SlicedModel.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid input",
+                    content = @Content)
+    })
+    @GetMapping("/search/name/slice")
+    public ResponseEntity<SlicedModel<EntityModel<TenantResponse>>> getTenantsByNameSlice(@RequestParam String name,
+                                                                                          @PageableDefault(size = 20) Pageable pageable) {
+        logger.info("Controller: Searching slice of tenants by name: {} with pagination: {}", name, pageable);
+
+        Slice<TenantResponse> tenantsByNameSliceResponse = tenantService.sliceTenantsByName(name, pageable);
+
+        SlicedModel<EntityModel<TenantResponse>> tenantsByNameSlicedModel = tenantPagedResourcesAssembler.toSlicedModelWithNameSearch(tenantsByNameSliceResponse, name);
+
+        logger.info("Controller: Found {} tenants matching name: {}", tenantsByNameSliceResponse.getNumberOfElements(), name);
+        return ResponseEntity.ok(tenantsByNameSlicedModel);
+    }
+
     /**
      * Retrieves tenants by their active status with pagination.
      *
@@ -253,6 +349,82 @@ public class TenantControllerV1 {
         return ResponseEntity.ok(tenantsByActiveStatusPagedModel);
     }
 
+    /**
+     * Retrieves tenants by their active status as a slice, without counting them.
+     *
+     * @param isActive The active status to filter by.
+     * @param pageable Pagination information.
+     * @return ResponseEntity containing a sliced model of tenant responses.
+     */
+    @Operation(summary = "Get a slice of tenants by active status", description = "Get tenants by their active " +
+            "status without the total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved slice of tenants",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SlicedModel.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid input",
+                    content = @Content)
+    })
+    @GetMapping("/search/active/slice")
+    public ResponseEntity<SlicedModel<EntityModel<TenantResponse>>> getTenantsByActiveStatusSlice(
+            @RequestParam(name="active", required=true) Boolean isActive,
+            @PageableDefault(size = 20) Pageable pageable) {
+        logger.info("Controller: Fetching slice of {} tenants with pagination: {}", isActive ? "active" : "inactive", pageable);
+
+        Slice<TenantResponse> tenantsByActiveStatusSliceResponse;
+        if (isActive) {
+            tenantsByActiveStatusSliceResponse = tenantService.sliceActiveTenants(pageable);
+        } else {
+            tenantsByActiveStatusSliceResponse = tenantService.sliceInactiveTenants(pageable);
+        }
+
+        SlicedModel<EntityModel<TenantResponse>> tenantsByActiveStatusSlicedModel = tenantPagedResourcesAssembler
+                .toSlicedModelWithActiveStatus(tenantsByActiveStatusSliceResponse, isActive);
+
+        logger.info("Controller: Retrieved {} {} tenants", tenantsByActiveStatusSliceResponse.getNumberOfElements(), isActive ? "active" : "inactive");
+        return ResponseEntity.ok(tenantsByActiveStatusSlicedModel);
+    }
+
+    /**
+     * Retrieves tenants by their active status with cursor-based pagination.
+     *
+     * @param isActive The active status to filter by.
+     * @param cursor The continuation token from a previous response, or null for the first window.
+     * @param size The maximum number of tenants to return.
+     * @return ResponseEntity containing a window of tenant responses with next and prev links.
+     */
+    @Operation(summary = "Scroll tenants by active status", description = "Get a window of tenants by their " +
+            "active status, ordered by ID, continuing from the cursor of a next or prev link")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved window of tenants",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CollectionModel.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid input",
+                    content = @Content)
+    })
+    @GetMapping("/search/active/scroll")
+    public ResponseEntity<CollectionModel<EntityModel<TenantResponse>>> getTenantsByActiveStatusAndCursor(
+            @RequestParam(name="active", required=true) Boolean isActive,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        logger.info("Controller: Scrolling {} tenants from cursor: {} with size: {}",
+                isActive ? "active" : "inactive", cursor, size);
+
+        KeysetScrollPosition position = TenantCursors.decode(cursor);
+        Window<TenantResponse> tenantsByActiveStatusWindow;
+        if (isActive) {
+            tenantsByActiveStatusWindow = tenantService.getActiveTenants(position, size);
+        } else {
+            tenantsByActiveStatusWindow = tenantService.getInactiveTenants(position, size);
+        }
+
+        CollectionModel<EntityModel<TenantResponse>> tenantsByActiveStatusCursorModel = tenantPagedResourcesAssembler
+                .toCursorModelWithActiveStatus(tenantsByActiveStatusWindow, position, isActive, size);
+
+        logger.info("Controller: Retrieved {} {} tenants", tenantsByActiveStatusWindow.size(), isActive ? "active" : "inactive");
+        return ResponseEntity.ok(tenantsByActiveStatusCursorModel);
+    }
+
     /**
      * Retrieves a tenant by its subdomain.
      * @param subdomainName The subdomain of the tenant to retrieve.
@@ -0,0 +1,58 @@
+package com.codewithomarm.rosterup.tenant.v1.cursor;
+
+import com.codewithomarm.rosterup.tenant.v1.exception.InvalidTenantParameterException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Converts keyset positions over the tenant id into opaque continuation tokens and back.
+ * A token records the id to continue from and the direction to read in; clients must not
+ * rely on its format.
+ */
+public final class TenantCursors {
+
+    private static final String ID = "id";
+    private static final char FORWARD = 'f';
+    private static final char BACKWARD = 'b';
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private TenantCursors() {
+    }
+
+    /**
+     * @param cursor A continuation token, or {@code null} for the first page.
+     * @return the keyset position the token points at.
+     * @throws InvalidTenantParameterException if the token was not issued by {@link #encode}.
+     */
+    public static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String decoded = new String(DECODER.decode(cursor), StandardCharsets.US_ASCII);
+            Map<String, Object> keyset = Map.of(ID, Long.parseLong(decoded.substring(1)));
+            return switch (decoded.charAt(0)) {
+                case FORWARD -> ScrollPosition.forward(keyset);
+                case BACKWARD -> ScrollPosition.backward(keyset);
+                default -> throw new IllegalArgumentException("Unknown direction");
+            };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidTenantParameterException("cursor", "is not valid");
+        }
+    }
+
+    /**
+     * @param position A keyset position over the tenant id.
+     * @return the continuation token for the position.
+     */
+    public static String encode(KeysetScrollPosition position) {
+        char direction = position.scrollsForward() ? FORWARD : BACKWARD;
+        String token = direction + String.valueOf(position.getKeys().get(ID));
+        return ENCODER.encodeToString(token.getBytes(StandardCharsets.US_ASCII));
+    }
+}
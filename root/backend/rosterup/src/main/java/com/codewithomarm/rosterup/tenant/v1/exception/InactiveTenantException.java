@@ -0,0 +1,12 @@
+package com.codewithomarm.rosterup.tenant.v1.exception;
+
+import java.io.Serial;
+
+public class InactiveTenantException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public InactiveTenantException(String tenantSubdomain) {
+        super("Tenant is inactive with subdomain: " + tenantSubdomain);
+    }
+}
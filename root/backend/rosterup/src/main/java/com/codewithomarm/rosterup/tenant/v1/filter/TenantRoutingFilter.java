@@ -0,0 +1,104 @@
+package com.codewithomarm.rosterup.tenant.v1.filter;
+
+import com.codewithomarm.rosterup.tenant.v1.context.TenantContext;
+import com.codewithomarm.rosterup.tenant.v1.dto.response.ErrorResponse;
+import com.codewithomarm.rosterup.tenant.v1.exception.InactiveTenantException;
+import com.codewithomarm.rosterup.tenant.v1.exception.TenantNotFoundException;
+import com.codewithomarm.rosterup.tenant.v1.resolver.ResolvedTenant;
+import com.codewithomarm.rosterup.tenant.v1.resolver.TenantResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Routes each request to the tenant named by the subdomain of its host, e.g. {@code acme} for
+ * {@code acme.rosterup.com} when {@code tenant.routing.base-domain} is {@code rosterup.com}.
+ * The tenant id is bound to {@link TenantContext} for the rest of the request. Unknown
+ * subdomains are answered with 404 and inactive tenants with 403, before authentication or
+ * any controller runs. Requests to the base domain itself, or to any other host, are not bound
+ * to a tenant. Routing is off while no base domain is configured.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class TenantRoutingFilter extends OncePerRequestFilter {
+
+    private final TenantResolver tenantResolver;
+    private final ObjectMapper objectMapper;
+    private final String baseDomainSuffix;
+
+    public TenantRoutingFilter(TenantResolver tenantResolver, ObjectMapper objectMapper,
+                               @Value("${tenant.routing.base-domain}") String baseDomain) {
+        this.tenantResolver = tenantResolver;
+        this.objectMapper = objectMapper;
+        this.baseDomainSuffix = baseDomain.isBlank() ? null : "." + baseDomain.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return baseDomainSuffix == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String subdomain = subdomainOf(request.getServerName());
+        if (subdomain == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Optional<ResolvedTenant> tenant = tenantResolver.resolve(subdomain);
+        if (tenant.isEmpty()) {
+            reject(response, HttpStatus.NOT_FOUND, "Tenant Not Found", new TenantNotFoundException(subdomain));
+            return;
+        }
+        if (!tenant.get().active()) {
+            reject(response, HttpStatus.FORBIDDEN, "Inactive Tenant", new InactiveTenantException(subdomain));
+            return;
+        }
+
+        TenantContext.setTenantId(tenant.get().id());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /**
+     * @param host The host the request was sent to.
+     * @return the single label in front of the base domain, or {@code null} if the host is not
+     * a direct subdomain of it.
+     */
+    private String subdomainOf(String host) {
+        String normalizedHost = host.toLowerCase(Locale.ROOT);
+        if (!normalizedHost.endsWith(baseDomainSuffix)) {
+            return null;
+        }
+        String subdomain = normalizedHost.substring(0, normalizedHost.length() - baseDomainSuffix.length());
+        return subdomain.isEmpty() || subdomain.indexOf('.') >= 0 ? null : subdomain;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String title,
+                        RuntimeException e) throws IOException {
+        ErrorResponse error = new ErrorResponse(title, status.value(), e.getClass().getName());
+        error.addDetail(e.getMessage());
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -1,6 +1,7 @@
 package com.codewithomarm.rosterup.tenant.v1.model;
 
 import com.codewithomarm.rosterup.roster.v1.account.model.Account;
+import com.codewithomarm.rosterup.roster.v1.common.util.Slugs;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -9,7 +10,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name="tenants", schema = "tenant")
+@Table(name="tenants", schema = "tenant",
+        indexes = @Index(name="tenant_slug_idx", columnList = "slug"))
 public class Tenant {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,6 +20,10 @@ public class Tenant {
     @Column(nullable = false, length = 100)
     private String name;
 
+    // Maintained from name on every insert and update; searched instead of an expression over name
+    @Column(length = 100)
+    private String slug;
+
     @Column(nullable = false, length = 50, unique = true)
     private String subdomain;
 
@@ -71,6 +77,10 @@ public class Tenant {
         this.name = name;
     }
 
+    public String getSlug() {
+        return slug;
+    }
+
     public String getSubdomain() {
         return subdomain;
     }
@@ -111,6 +121,12 @@ public class Tenant {
         this.accounts = accounts;
     }
 
+    @PrePersist
+    @PreUpdate
+    private void updateSlug() {
+        slug = Slugs.of(name);
+    }
+
     /*
     public List<Position> getPositions() {
         return positions;
@@ -1,17 +1,21 @@
 package com.codewithomarm.rosterup.tenant.v1.repository;
 
 import com.codewithomarm.rosterup.tenant.v1.model.Tenant;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 
 public interface TenantRepository extends JpaRepository<Tenant, Long> {
-    // Fetch tenant by name
-    @Query("SELECT t FROM Tenant t WHERE LOWER(REPLACE(t.name, ' ', '-')) = LOWER(:name)")
-    Page<Tenant> findByName(String name, Pageable pageable);
+    // Fetch tenant by name, given as its slug (see Slugs.of) so the column index is used
+    @Query("SELECT t FROM Tenant t WHERE t.slug = :slug")
+    Page<Tenant> findByName(String slug, Pageable pageable);
 
     // Fetch tenant by subdomain
     Optional<Tenant> findBySubdomain(String subdomain);
@@ -23,4 +27,28 @@ public interface TenantRepository extends JpaRepository<Tenant, Long> {
     // Fetch only inactive tenants
     @Query("SELECT t FROM Tenant t WHERE t.isActive = false")
     Page<Tenant> findAllInactive(Pageable pageable);
+
+    // Slices fetch one row more than the page size to tell whether there is a next page, without a count query
+
+    // Fetch a slice of all tenants
+    @Query("SELECT t FROM Tenant t")
+    Slice<Tenant> sliceAll(Pageable pageable);
+
+    // Fetch a slice of tenants by name, given as its slug
+    @Query("SELECT t FROM Tenant t WHERE t.slug = :slug")
+    Slice<Tenant> sliceByName(String slug, Pageable pageable);
+
+    // Fetch a slice of active tenants
+    @Query("SELECT t FROM Tenant t WHERE t.isActive = true")
+    Slice<Tenant> sliceAllActive(Pageable pageable);
+
+    // Fetch a slice of inactive tenants
+    @Query("SELECT t FROM Tenant t WHERE t.isActive = false")
+    Slice<Tenant> sliceAllInactive(Pageable pageable);
+
+    // Fetch a window of tenants after (or before) a keyset position on id, without OFFSET or count
+    Window<Tenant> findAllByOrderByIdAsc(ScrollPosition position, Limit limit);
+
+    // Fetch a window of active or inactive tenants after (or before) a keyset position on id
+    Window<Tenant> findByIsActiveOrderByIdAsc(Boolean isActive, ScrollPosition position, Limit limit);
 }
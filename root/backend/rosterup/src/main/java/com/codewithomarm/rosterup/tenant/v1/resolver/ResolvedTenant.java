@@ -0,0 +1,9 @@
+package com.codewithomarm.rosterup.tenant.v1.resolver;
+
+/**
+ * The part of a tenant needed to route a request to it.
+ * @param id The tenant id.
+ * @param active Whether the tenant is active.
+ */
+public record ResolvedTenant(Long id, boolean active) {
+}
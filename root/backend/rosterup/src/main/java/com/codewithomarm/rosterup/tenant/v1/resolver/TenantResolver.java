@@ -0,0 +1,127 @@
+package com.codewithomarm.rosterup.tenant.v1.resolver;
+
+import com.codewithomarm.rosterup.tenant.v1.model.Tenant;
+import com.codewithomarm.rosterup.tenant.v1.repository.TenantRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Resolves subdomains to tenants from a bounded in-process cache. Unknown subdomains are cached
+ * as well, for the shorter {@code tenant.resolver.negative-ttl}, so bursts of requests for them
+ * do not reach the database either. Concurrent misses for the same subdomain are served by a
+ * single query.
+ * <p>
+ * {@link #evict(String)} invalidates an entry on this node whenever a tenant is created, updated
+ * or deleted here. Other nodes are not told: they pick up the change once their entry expires,
+ * so a tenant may keep being routed by its old state on other nodes for up to
+ * {@code tenant.resolver.ttl}, and a new subdomain may stay unknown there for up to
+ * {@code tenant.resolver.negative-ttl}. Hits and misses are reported as
+ * {@code rosterup.tenants.resolver}.
+ * <p>
+ * The cache only serves routing and lookups; uniqueness checks must query the repository.
+ */
+@Component
+public class TenantResolver {
+
+    private static final String CACHE_NAME = "rosterup.tenants.resolver";
+
+    private final TenantRepository tenantRepository;
+    private final LoadingCache<String, Optional<ResolvedTenant>> tenantsBySubdomain;
+
+    public TenantResolver(TenantRepository tenantRepository, MeterRegistry meterRegistry,
+                          @Value("${tenant.resolver.maximum-size}") long maximumSize,
+                          @Value("${tenant.resolver.ttl}") Duration ttl,
+                          @Value("${tenant.resolver.negative-ttl}") Duration negativeTtl) {
+        this.tenantRepository = tenantRepository;
+        this.tenantsBySubdomain = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ResolvedTenantExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build(subdomain -> tenantRepository.findBySubdomain(subdomain).map(TenantResolver::toResolvedTenant));
+        CaffeineCacheMetrics.monitor(meterRegistry, tenantsBySubdomain, CACHE_NAME);
+        Gauge.builder(CACHE_NAME + ".hit.ratio", tenantsBySubdomain, cache -> cache.stats().hitRate())
+                .description("Share of subdomain lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param subdomain The subdomain to resolve.
+     * @return the tenant owning the subdomain, or empty if there is none.
+     */
+    public Optional<ResolvedTenant> resolve(String subdomain) {
+        return tenantsBySubdomain.get(subdomain);
+    }
+
+    /**
+     * Loads the tenant owning a subdomain with a single query. An unknown subdomain that is
+     * cached needs no query, a cached tenant is loaded by id, and on a miss the tenant loaded
+     * by subdomain also fills the cache.
+     * @param subdomain The subdomain to look up.
+     * @return the tenant owning the subdomain, or empty if there is none.
+     */
+    public Optional<Tenant> findTenant(String subdomain) {
+        Optional<ResolvedTenant> cached = tenantsBySubdomain.getIfPresent(subdomain);
+        if (cached != null) {
+            return cached.map(ResolvedTenant::id).flatMap(tenantRepository::findById);
+        }
+        Optional<Tenant> tenant = tenantRepository.findBySubdomain(subdomain);
+        tenantsBySubdomain.asMap().putIfAbsent(subdomain, tenant.map(TenantResolver::toResolvedTenant));
+        return tenant;
+    }
+
+    /**
+     * Drops the cached tenant of a subdomain. Inside a transaction the entry is dropped again
+     * once it commits, so a lookup racing with the transaction cannot keep the old tenant.
+     * @param subdomain The subdomain whose tenant was created, changed or deleted.
+     */
+    public void evict(String subdomain) {
+        tenantsBySubdomain.invalidate(subdomain);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    tenantsBySubdomain.invalidate(subdomain);
+                }
+            });
+        }
+    }
+
+    private static ResolvedTenant toResolvedTenant(Tenant tenant) {
+        return new ResolvedTenant(tenant.getId(), Boolean.TRUE.equals(tenant.getActive()));
+    }
+
+    /**
+     * Keeps a resolved tenant for the TTL and an unknown subdomain for the negative TTL.
+     */
+    private record ResolvedTenantExpiry(long ttlNanos, long negativeTtlNanos)
+            implements Expiry<String, Optional<ResolvedTenant>> {
+
+        @Override
+        public long expireAfterCreate(String subdomain, Optional<ResolvedTenant> tenant, long currentTime) {
+            return tenant.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String subdomain, Optional<ResolvedTenant> tenant, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(subdomain, tenant, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String subdomain, Optional<ResolvedTenant> tenant, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
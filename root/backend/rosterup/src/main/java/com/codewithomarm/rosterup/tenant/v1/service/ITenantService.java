@@ -4,9 +4,13 @@ import com.codewithomarm.rosterup.tenant.v1.dto.request.CreateTenantRequest;
 import com.codewithomarm.rosterup.tenant.v1.dto.request.UpdateTenantRequest;
 import com.codewithomarm.rosterup.tenant.v1.dto.response.TenantResponse;
 import com.codewithomarm.rosterup.tenant.v1.exception.DuplicateSubdomainException;
+import com.codewithomarm.rosterup.tenant.v1.exception.InvalidTenantParameterException;
 import com.codewithomarm.rosterup.tenant.v1.exception.TenantNotFoundException;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 
 /**
  * Service interface for managing tenant-related operations.
@@ -22,6 +26,26 @@ public interface ITenantService {
      */
     Page<TenantResponse> getAllTenants(Pageable pageable);
 
+    /**
+     * Retrieves all tenants as a slice, which tells whether there is a next page without
+     * counting every tenant.
+     *
+     * @param pageable Pagination information.
+     * @return A Slice of TenantResponse objects.
+     */
+    Slice<TenantResponse> sliceAllTenants(Pageable pageable);
+
+    /**
+     * Retrieves a window of tenants ordered by ID, continuing from a keyset position.
+     * Unlike the paged variant, the cost does not grow with the depth of the window.
+     *
+     * @param position The keyset position to continue from.
+     * @param size The maximum number of tenants to return.
+     * @return A window of TenantResponse objects.
+     * @throws InvalidTenantParameterException if the size is out of range.
+     */
+    Window<TenantResponse> getAllTenants(KeysetScrollPosition position, int size);
+
     /**
      * Retrieves a specific tenant by its ID.
      *
@@ -40,6 +64,15 @@ public interface ITenantService {
      */
     Page<TenantResponse> getTenantsByName(String name, Pageable pageable);
 
+    /**
+     * Searches for tenants by name as a slice, without counting the matches.
+     *
+     * @param name The name to search for.
+     * @param pageable Pagination information.
+     * @return A slice of TenantResponse objects matching the given name.
+     */
+    Slice<TenantResponse> sliceTenantsByName(String name, Pageable pageable);
+
     /**
      * Retrieves a tenant by its subdomain.
      *
@@ -57,6 +90,24 @@ public interface ITenantService {
      */
     Page<TenantResponse> getActiveTenants(Pageable pageable);
 
+    /**
+     * Retrieves active tenants as a slice, without counting them.
+     *
+     * @param pageable Pageable information.
+     * @return A slice of TenantResponse objects for active tenants
+     */
+    Slice<TenantResponse> sliceActiveTenants(Pageable pageable);
+
+    /**
+     * Retrieves a window of active tenants ordered by ID, continuing from a keyset position.
+     *
+     * @param position The keyset position to continue from.
+     * @param size The maximum number of tenants to return.
+     * @return A window of TenantResponse objects for active tenants.
+     * @throws InvalidTenantParameterException if the size is out of range.
+     */
+    Window<TenantResponse> getActiveTenants(KeysetScrollPosition position, int size);
+
     /**
      * Retrieves all inactive tenants with pagination.
      *
@@ -65,6 +116,24 @@ public interface ITenantService {
      */
     Page<TenantResponse> getInactiveTenants(Pageable pageable);
 
+    /**
+     * Retrieves inactive tenants as a slice, without counting them.
+     *
+     * @param pageable Pageable information.
+     * @return A slice of TenantResponse objects for inactive tenants
+     */
+    Slice<TenantResponse> sliceInactiveTenants(Pageable pageable);
+
+    /**
+     * Retrieves a window of inactive tenants ordered by ID, continuing from a keyset position.
+     *
+     * @param position The keyset position to continue from.
+     * @param size The maximum number of tenants to return.
+     * @return A window of TenantResponse objects for inactive tenants.
+     * @throws InvalidTenantParameterException if the size is out of range.
+     */
+    Window<TenantResponse> getInactiveTenants(KeysetScrollPosition position, int size);
+
     /**
      * Creates a new tenant.
      *
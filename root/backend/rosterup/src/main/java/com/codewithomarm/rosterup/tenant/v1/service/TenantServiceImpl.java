@@ -1,5 +1,6 @@
 package com.codewithomarm.rosterup.tenant.v1.service;
 
+import com.codewithomarm.rosterup.roster.v1.common.util.Slugs;
 import com.codewithomarm.rosterup.tenant.v1.dto.request.CreateTenantRequest;
 import com.codewithomarm.rosterup.tenant.v1.dto.request.UpdateTenantRequest;
 import com.codewithomarm.rosterup.tenant.v1.dto.response.TenantResponse;
@@ -8,12 +9,17 @@ import com.codewithomarm.rosterup.tenant.v1.exception.InvalidTenantParameterExce
 import com.codewithomarm.rosterup.tenant.v1.exception.TenantNotFoundException;
 import com.codewithomarm.rosterup.tenant.v1.model.Tenant;
 import com.codewithomarm.rosterup.tenant.v1.repository.TenantRepository;
+import com.codewithomarm.rosterup.tenant.v1.resolver.TenantResolver;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 /**
@@ -25,15 +31,20 @@ public class TenantServiceImpl implements ITenantService {
 
     private static final Logger logger = LoggerFactory.getLogger(TenantServiceImpl.class);
 
+    private static final int MAX_WINDOW_SIZE = 100;
+
     private final TenantRepository tenantRepository;
+    private final TenantResolver tenantResolver;
 
     /**
-     * Constructs a new TenantServiceImpl with the specified TenantRepository dependency.
+     * Constructs a new TenantServiceImpl with the specified dependencies.
      * @param tenantRepository The repository for tenant-related database operations.
+     * @param tenantResolver The cached subdomain to tenant lookup, evicted on every tenant change.
      */
     @Autowired
-    public TenantServiceImpl(TenantRepository tenantRepository) {
+    public TenantServiceImpl(TenantRepository tenantRepository, TenantResolver tenantResolver) {
         this.tenantRepository = tenantRepository;
+        this.tenantResolver = tenantResolver;
     }
 
     /**
@@ -50,6 +61,34 @@ public class TenantServiceImpl implements ITenantService {
         return allTenantsResponse;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Slice<TenantResponse> sliceAllTenants(Pageable pageable) {
+        logger.info("Service: Retrieving slice of all tenants with pagination: {}", pageable);
+
+        Slice<Tenant> allTenants = tenantRepository.sliceAll(pageable);
+        Slice<TenantResponse> allTenantsResponse = allTenants.map(this::convertToResponse);
+
+        logger.info("Service: Retrieved {} tenants from sliceAllTenants", allTenantsResponse.getNumberOfElements());
+        return allTenantsResponse;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Window<TenantResponse> getAllTenants(KeysetScrollPosition position, int size) {
+        logger.info("Service: Retrieving all tenants from position: {} with size: {}", position, size);
+
+        Window<Tenant> allTenants = tenantRepository.findAllByOrderByIdAsc(position, validateWindowSize(size));
+        Window<TenantResponse> allTenantsResponse = allTenants.map(this::convertToResponse);
+
+        logger.info("Service: Retrieved {} tenants from getAllTenants", allTenantsResponse.size());
+        return allTenantsResponse;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -77,20 +116,35 @@ public class TenantServiceImpl implements ITenantService {
     public Page<TenantResponse> getTenantsByName(String name, Pageable pageable) {
         logger.info("Service: Retrieving tenants by name: {} with pagination: {}", name, pageable);
 
-        Page<Tenant> tenantsByName = tenantRepository.findByName(name, pageable);
+        Page<Tenant> tenantsByName = tenantRepository.findByName(Slugs.of(name), pageable);
         Page<TenantResponse> tenantsByNameResponsePage = tenantsByName.map(this::convertToResponse);
 
         logger.info("Service: Retrieved {} tenants with name: {}", tenantsByNameResponsePage.getTotalElements(), name);
         return tenantsByNameResponsePage;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Slice<TenantResponse> sliceTenantsByName(String name, Pageable pageable) {
+        logger.info("Service: Retrieving slice of tenants by name: {} with pagination: {}", name, pageable);
+
+        Slice<Tenant> tenantsByName = tenantRepository.sliceByName(Slugs.of(name), pageable);
+        Slice<TenantResponse> tenantsByNameResponseSlice = tenantsByName.map(this::convertToResponse);
+
+        logger.info("Service: Retrieved {} tenants with name: {}", tenantsByNameResponseSlice.getNumberOfElements(), name);
+        return tenantsByNameResponseSlice;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public TenantResponse getTenantBySubdomain(String subdomain) {
         logger.info("Service: Attempting to retrieve tenant with subdomain: {}", subdomain);
-        Tenant tenantBySubdomain = tenantRepository.findBySubdomain(subdomain)
+        // Unknown subdomains are answered from the resolver cache without a query, others take one
+        Tenant tenantBySubdomain = tenantResolver.findTenant(subdomain)
                 .orElseThrow(() -> {
                     logger.error("Service: Tenant not found with subdomain: {}", subdomain);
                     return new TenantNotFoundException(subdomain);
@@ -116,6 +170,35 @@ public class TenantServiceImpl implements ITenantService {
         return activeTenantsResponsePage;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Slice<TenantResponse> sliceActiveTenants(Pageable pageable) {
+        logger.info("Service: Retrieving slice of active tenants with pagination: {}", pageable);
+
+        Slice<Tenant> activeTenants = tenantRepository.sliceAllActive(pageable);
+        Slice<TenantResponse> activeTenantsResponseSlice = activeTenants.map(this::convertToResponse);
+
+        logger.info("Service: Retrieved {} active tenants", activeTenantsResponseSlice.getNumberOfElements());
+        return activeTenantsResponseSlice;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Window<TenantResponse> getActiveTenants(KeysetScrollPosition position, int size) {
+        logger.info("Service: Retrieving active tenants from position: {} with size: {}", position, size);
+
+        Window<Tenant> activeTenants = tenantRepository.findByIsActiveOrderByIdAsc(true, position,
+                validateWindowSize(size));
+        Window<TenantResponse> activeTenantsResponse = activeTenants.map(this::convertToResponse);
+
+        logger.info("Service: Retrieved {} active tenants", activeTenantsResponse.size());
+        return activeTenantsResponse;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -130,6 +213,35 @@ public class TenantServiceImpl implements ITenantService {
         return inactiveTenantsResponsePage;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Slice<TenantResponse> sliceInactiveTenants(Pageable pageable) {
+        logger.info("Service: Retrieving slice of inactive tenants with pagination: {}", pageable);
+
+        Slice<Tenant> inactiveTenants = tenantRepository.sliceAllInactive(pageable);
+        Slice<TenantResponse> inactiveTenantsResponseSlice = inactiveTenants.map(this::convertToResponse);
+
+        logger.info("Service: Retrieved {} inactive tenants", inactiveTenantsResponseSlice.getNumberOfElements());
+        return inactiveTenantsResponseSlice;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Window<TenantResponse> getInactiveTenants(KeysetScrollPosition position, int size) {
+        logger.info("Service: Retrieving inactive tenants from position: {} with size: {}", position, size);
+
+        Window<Tenant> inactiveTenants = tenantRepository.findByIsActiveOrderByIdAsc(false, position,
+                validateWindowSize(size));
+        Window<TenantResponse> inactiveTenantsResponse = inactiveTenants.map(this::convertToResponse);
+
+        logger.info("Service: Retrieved {} inactive tenants", inactiveTenantsResponse.size());
+        return inactiveTenantsResponse;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -151,6 +263,7 @@ public class TenantServiceImpl implements ITenantService {
 
         // Save tenant entity in db
         Tenant savedTenantEntity = tenantRepository.save(tenantEntity);
+        tenantResolver.evict(savedTenantEntity.getSubdomain());
 
         // Convert saved tenant entity to dto and return
         logger.info("Service: Successfully created new tenant with ID: {}", savedTenantEntity.getId());
@@ -182,12 +295,15 @@ public class TenantServiceImpl implements ITenantService {
         }
 
         // Update tenant entity
+        String previousSubdomain = tenantEntity.getSubdomain();
         tenantEntity.setName(request.getName());
         tenantEntity.setSubdomain(request.getSubdomain());
         tenantEntity.setActive(request.getActive());
 
         // Save updated tenant entity in db
         Tenant updatedTenantEntity = tenantRepository.save(tenantEntity);
+        tenantResolver.evict(previousSubdomain);
+        tenantResolver.evict(updatedTenantEntity.getSubdomain());
 
         // Convert and return updated tenant entity to dto
         TenantResponse updatedTenantResponse = convertToResponse(updatedTenantEntity);
@@ -207,6 +323,7 @@ public class TenantServiceImpl implements ITenantService {
         tenantRepository.findById(tenantId)
                 .ifPresentOrElse(tenant -> {
                     tenantRepository.delete(tenant);
+                    tenantResolver.evict(tenant.getSubdomain());
                     logger.info("Service: Successfully deleted tenant with ID: {}", tenantId);
                 }, () -> {
                     logger.error("Service: Tenant not found with ID: {} from deleteTenant", tenantId);
@@ -235,6 +352,21 @@ public class TenantServiceImpl implements ITenantService {
         }
     }
 
+    /**
+     * Validates the size of a window of tenants.
+     *
+     * @param size The requested number of tenants.
+     * @return the size as a query limit.
+     * @throws InvalidTenantParameterException if the size is not between 1 and {@value #MAX_WINDOW_SIZE}.
+     */
+    private Limit validateWindowSize(int size) {
+        if (size < 1 || size > MAX_WINDOW_SIZE) {
+            logger.error("Service: Invalid window size: {}", size);
+            throw new InvalidTenantParameterException("size", "must be between 1 and " + MAX_WINDOW_SIZE);
+        }
+        return Limit.of(size);
+    }
+
     /**
      * Converts a Tenant entity model to a TenantResponse DTO.
      * @param tenant The tenant entity model to convert.
@@ -0,0 +1,58 @@
+package com.codewithomarm.rosterup.config;
+
+import com.codewithomarm.rosterup.roster.v1.common.util.Slugs;
+import com.codewithomarm.rosterup.tenant.v1.dto.response.TenantResponse;
+import com.codewithomarm.rosterup.tenant.v1.service.ITenantService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that {@link SlugMigration} backfills the slugs the entities would have written, so
+ * tenants created before the slug column existed are found by name, non-ASCII names included.
+ * Runs against an in-memory H2 database.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:slugs;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+		"jwt.revocation.notify.enabled=false",
+		"security.password.bcrypt-strength=4"
+})
+class SlugMigrationTests {
+
+	private static final String NAME = "İstanbul Ünited";
+
+	@Autowired
+	private SlugMigration slugMigration;
+
+	@Autowired
+	private ITenantService tenantService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void backfilledSlugsMatchTheEntitySlugs() {
+		// A tenant written before the slug column existed
+		jdbcTemplate.execute("ALTER TABLE tenant.tenants ALTER COLUMN slug DROP NOT NULL");
+		jdbcTemplate.update("INSERT INTO tenant.tenants (name, subdomain, is_active, created_at, updated_at) "
+				+ "VALUES (?, 'istanbul', true, LOCALTIMESTAMP, LOCALTIMESTAMP)", NAME);
+
+		slugMigration.migrate();
+
+		assertEquals(Slugs.of(NAME), jdbcTemplate.queryForObject(
+				"SELECT slug FROM tenant.tenants WHERE subdomain = 'istanbul'", String.class));
+		Page<TenantResponse> tenants = tenantService.getTenantsByName(NAME, PageRequest.of(0, 10));
+		assertEquals(1, tenants.getTotalElements());
+		assertEquals("istanbul", tenants.getContent().get(0).getSubdomain());
+	}
+}
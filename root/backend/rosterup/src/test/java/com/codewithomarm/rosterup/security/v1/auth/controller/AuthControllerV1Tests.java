@@ -0,0 +1,136 @@
+package com.codewithomarm.rosterup.security.v1.auth.controller;
+
+import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import com.codewithomarm.rosterup.security.v1.auth.service.ratelimit.LoginRateLimiter;
+import com.codewithomarm.rosterup.security.v1.user.repository.RosterupUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks that logins are rate limited by the address of the client rather than of the reverse
+ * proxy in front of the application, and that refresh tokens are rotated and their reuse
+ * detected. Runs on a real server, since the forwarded headers are applied by Tomcat, against an
+ * in-memory H2 database seeded by {@code DataInitializer}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:auth-controller;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+		"jwt.revocation.notify.enabled=false",
+		"security.password.bcrypt-strength=4"
+})
+class AuthControllerV1Tests {
+
+	private static final String LOGIN_PATH = "/api/roster-up/v1/auth/login";
+	private static final String REFRESH_PATH = "/api/roster-up/v1/auth/refresh";
+	private static final String TENANTS_PATH = "/api/roster-up/v1/tenants";
+	private static final String USERNAME = "omar.montoya";
+	private static final String PASSWORD = "Bred0420@@";
+	private static final String CLIENT_IP = "203.0.113.7";
+	private static final ParameterizedTypeReference<Map<String, Object>> TOKENS = new ParameterizedTypeReference<>() {
+	};
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TokenRepository tokenRepository;
+
+	@Autowired
+	private RosterupUserRepository rosterupUserRepository;
+
+	@SpyBean
+	private LoginRateLimiter loginRateLimiter;
+
+	@BeforeEach
+	void setUp() {
+		// HttpURLConnection cannot read a 401 response to a POST
+		restTemplate.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+	}
+
+	@Test
+	void loginFromTrustedProxyIsLimitedByForwardedClientIp() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		// The test client connects from the loopback address, which Tomcat trusts as a proxy
+		headers.set("X-Forwarded-For", CLIENT_IP);
+
+		ResponseEntity<String> response = restTemplate.postForEntity(LOGIN_PATH,
+				new HttpEntity<>(Map.of("username", USERNAME, "password", PASSWORD), headers), String.class);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		verify(loginRateLimiter).acquire(eq(USERNAME), eq(CLIENT_IP));
+	}
+
+	@Test
+	void refreshRotatesTheTokenPair() {
+		Map<String, Object> login = login();
+
+		ResponseEntity<Map<String, Object>> refreshed = refresh(login.get("refresh_token"));
+
+		assertEquals(HttpStatus.OK, refreshed.getStatusCode());
+		assertEquals(HttpStatus.OK, getTenants(refreshed.getBody().get("access_token")));
+		// The access token issued with the consumed refresh token is revoked with it
+		assertEquals(HttpStatus.UNAUTHORIZED, getTenants(login.get("access_token")));
+	}
+
+	@Test
+	void replayedRefreshTokenRevokesEveryTokenOfTheUser() {
+		Map<String, Object> login = login();
+		Map<String, Object> refreshed = refresh(login.get("refresh_token")).getBody();
+
+		ResponseEntity<Map<String, Object>> replay = refresh(login.get("refresh_token"));
+
+		assertEquals(HttpStatus.UNAUTHORIZED, replay.getStatusCode());
+		// The pair issued by the legitimate refresh is revoked as well
+		assertEquals(HttpStatus.UNAUTHORIZED, getTenants(refreshed.get("access_token")));
+		assertEquals(HttpStatus.UNAUTHORIZED, refresh(refreshed.get("refresh_token")).getStatusCode());
+		Long userId = rosterupUserRepository.findByUsername(USERNAME).orElseThrow().getId();
+		assertEquals(List.of(), tokenRepository.findAllValidByUser(userId));
+	}
+
+	private Map<String, Object> login() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		ResponseEntity<Map<String, Object>> response = restTemplate.exchange(LOGIN_PATH, HttpMethod.POST,
+				new HttpEntity<>(Map.of("username", USERNAME, "password", PASSWORD), headers), TOKENS);
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		return response.getBody();
+	}
+
+	private ResponseEntity<Map<String, Object>> refresh(Object refreshToken) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setBearerAuth((String) refreshToken);
+		return restTemplate.exchange(REFRESH_PATH, HttpMethod.POST, new HttpEntity<>(headers), TOKENS);
+	}
+
+	private HttpStatusCode getTenants(Object accessToken) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setBearerAuth((String) accessToken);
+		return restTemplate.exchange(TENANTS_PATH, HttpMethod.GET, new HttpEntity<>(headers), String.class)
+				.getStatusCode();
+	}
+}
@@ -0,0 +1,178 @@
+package com.codewithomarm.rosterup.security.v1.auth.controller;
+
+import com.codewithomarm.rosterup.security.v1.user.model.ERole;
+import com.codewithomarm.rosterup.security.v1.user.model.RosterupUser;
+import com.codewithomarm.rosterup.security.v1.user.repository.RosterupRoleRepository;
+import com.codewithomarm.rosterup.security.v1.user.repository.RosterupUserRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that only internal services may introspect tokens, and what they are told about active,
+ * revoked and expired tokens. Runs on a real server against an in-memory H2 database seeded by
+ * {@code DataInitializer}, plus a service account created here.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:token-introspection;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+		"jwt.revocation.notify.enabled=false",
+		"security.password.bcrypt-strength=4"
+})
+class TokenIntrospectionControllerV1Tests {
+
+	private static final String INTROSPECT_PATH = "/api/roster-up/v1/tokens/introspect";
+	private static final String LOGIN_PATH = "/api/roster-up/v1/auth/login";
+	private static final String USERNAME = "omar.montoya";
+	private static final String PASSWORD = "Bred0420@@";
+	private static final String SERVICE_USERNAME = "introspection.service";
+	private static final String SERVICE_PASSWORD = "Service0420@@";
+	private static final ParameterizedTypeReference<Map<String, Object>> JSON = new ParameterizedTypeReference<>() {
+	};
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private RosterupUserRepository rosterupUserRepository;
+
+	@Autowired
+	private RosterupRoleRepository rosterupRoleRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Value("${jwt.secret}")
+	private String jwtSecret;
+
+	@BeforeEach
+	void setUp() {
+		// HttpURLConnection cannot read a 401 response to a POST
+		restTemplate.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+		if (!rosterupUserRepository.existsByUsername(SERVICE_USERNAME)) {
+			RosterupUser service = new RosterupUser();
+			service.setUsername(SERVICE_USERNAME);
+			service.setPassword(passwordEncoder.encode(SERVICE_PASSWORD));
+			service.setEmail("introspection.service@rosterup.test");
+			service.setAccountNonExpired(true);
+			service.setAccountNonLocked(true);
+			service.setCredentialsNonExpired(true);
+			service.setEnabled(true);
+			service.setRosterupRoles(Set.of(rosterupRoleRepository.findByName(ERole.SERVICE).orElseThrow()));
+			rosterupUserRepository.save(service);
+		}
+	}
+
+	@Test
+	void activeTokenIsReportedActive() {
+		String accessToken = login();
+
+		ResponseEntity<Map<String, Object>> response = introspectAsService(accessToken);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(true, response.getBody().get("active"));
+		assertEquals(USERNAME, response.getBody().get("sub"));
+		assertEquals("access", response.getBody().get("token_type"));
+	}
+
+	@Test
+	void revokedTokenIsReportedInactive() {
+		String revokedAccessToken = login();
+		// A new login revokes the tokens of the previous one
+		login();
+
+		ResponseEntity<Map<String, Object>> response = introspectAsService(revokedAccessToken);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(Map.of("active", false), response.getBody());
+	}
+
+	@Test
+	void expiredTokenIsReportedInactive() {
+		Date issuedAt = new Date(System.currentTimeMillis() - 120_000L);
+		String expiredToken = Jwts.builder()
+				.claim("roles", List.of("ROLE_DEV"))
+				.setId(UUID.randomUUID().toString())
+				.setSubject(USERNAME)
+				.setIssuedAt(issuedAt)
+				.setExpiration(new Date(issuedAt.getTime() + 60_000L))
+				.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret)), SignatureAlgorithm.HS256)
+				.compact();
+
+		ResponseEntity<Map<String, Object>> response = introspectAsService(expiredToken);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(Map.of("active", false), response.getBody());
+	}
+
+	@Test
+	void endUsersCannotIntrospectTokens() {
+		String accessToken = login();
+		HttpHeaders headers = formHeaders();
+		headers.setBearerAuth(accessToken);
+
+		ResponseEntity<String> asEndUser = restTemplate.exchange(INTROSPECT_PATH, HttpMethod.POST,
+				new HttpEntity<>(form(accessToken), headers), String.class);
+		ResponseEntity<String> anonymous = restTemplate.exchange(INTROSPECT_PATH, HttpMethod.POST,
+				new HttpEntity<>(form(accessToken), formHeaders()), String.class);
+
+		assertEquals(HttpStatus.FORBIDDEN, asEndUser.getStatusCode());
+		assertEquals(HttpStatus.UNAUTHORIZED, anonymous.getStatusCode());
+	}
+
+	private ResponseEntity<Map<String, Object>> introspectAsService(String token) {
+		return restTemplate.withBasicAuth(SERVICE_USERNAME, SERVICE_PASSWORD).exchange(INTROSPECT_PATH,
+				HttpMethod.POST, new HttpEntity<>(form(token), formHeaders()), JSON);
+	}
+
+	private String login() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		ResponseEntity<Map<String, Object>> response = restTemplate.exchange(LOGIN_PATH, HttpMethod.POST,
+				new HttpEntity<>(Map.of("username", USERNAME, "password", PASSWORD), headers), JSON);
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		return (String) response.getBody().get("access_token");
+	}
+
+	private static MultiValueMap<String, String> form(String token) {
+		MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+		form.add("token", token);
+		return form;
+	}
+
+	private static HttpHeaders formHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+		return headers;
+	}
+}
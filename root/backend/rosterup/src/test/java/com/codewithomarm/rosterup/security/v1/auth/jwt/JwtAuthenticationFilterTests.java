@@ -0,0 +1,153 @@
+package com.codewithomarm.rosterup.security.v1.auth.jwt;
+
+import com.codewithomarm.rosterup.security.v1.auth.service.revocation.TokenRevocationIndex;
+import com.codewithomarm.rosterup.security.v1.auth.service.token.TokenWriter;
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.RosterupUserDetailsServiceImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks which tokens {@link JwtAuthenticationFilter} accepts, in particular tokens issued
+ * before the {@code token_type} claim existed, which are classified by their lifetime, and
+ * tokens authenticated in stateless mode.
+ */
+class JwtAuthenticationFilterTests {
+
+	private static final String SECRET = "eW91cl9zdXBlcl9zZWNyZXRfa2V5XzEyMzQ1Njc4OTA=";
+	private static final String USERNAME = "omar.montoya";
+	private static final long ACCESS_EXPIRATION_MS = 86_400_000L;
+	private static final long REFRESH_EXPIRATION_MS = 604_800_000L;
+	private static final long STATELESS_MAX_TOKEN_AGE_MS = 900_000L;
+
+	private TokenRevocationIndex tokenRevocationIndex;
+	private JwtService jwtService;
+	private RosterupUserDetailsServiceImpl userDetailsService;
+	private JwtAuthenticationFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		tokenRevocationIndex = mock(TokenRevocationIndex.class);
+		TokenWriter tokenWriter = mock(TokenWriter.class);
+		when(tokenWriter.isRecorded(anyString(), any())).thenReturn(true);
+		jwtService = new JwtService(tokenRevocationIndex, tokenWriter, new JwtKeyProvider(SECRET, "", "", false));
+		ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", ACCESS_EXPIRATION_MS);
+		ReflectionTestUtils.setField(jwtService, "jwtRefreshExpirationMs", REFRESH_EXPIRATION_MS);
+		ReflectionTestUtils.setField(jwtService, "jwtStatelessMaxTokenAgeMs", STATELESS_MAX_TOKEN_AGE_MS);
+		userDetailsService = mock(RosterupUserDetailsServiceImpl.class);
+		when(userDetailsService.loadUserByUsername(anyString())).thenReturn(
+				User.withUsername(USERNAME).password("unused").roles("DEV").build());
+		filter = new JwtAuthenticationFilter(jwtService, userDetailsService, false, new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void legacyRefreshTokenIsRejected() throws Exception {
+		doFilter(legacyToken(REFRESH_EXPIRATION_MS));
+
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+		verify(userDetailsService, never()).loadUserByUsername(anyString());
+	}
+
+	@Test
+	void legacyAccessTokenIsAccepted() throws Exception {
+		doFilter(legacyToken(ACCESS_EXPIRATION_MS));
+
+		assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+		assertEquals(USERNAME, SecurityContextHolder.getContext().getAuthentication().getName());
+	}
+
+	@Test
+	void statelessModeIssuesAccessTokensThatExpireAtTheMaxTokenAge() throws Exception {
+		useStatelessMode();
+
+		IssuedToken accessToken = jwtService.generateToken(userDetailsService.loadUserByUsername(USERNAME));
+		doFilter(accessToken.getCompactToken());
+
+		assertEquals(STATELESS_MAX_TOKEN_AGE_MS,
+				accessToken.getExpiration().getTime() - accessToken.getIssuedAt().getTime());
+		assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+		assertEquals(List.of("ROLE_DEV"), SecurityContextHolder.getContext().getAuthentication().getAuthorities()
+				.stream().map(GrantedAuthority::getAuthority).toList());
+	}
+
+	@Test
+	void statelessModeAuthenticatesWithoutLoadingTheUser() throws Exception {
+		useStatelessMode();
+		IssuedToken accessToken = jwtService.generateToken(
+				User.withUsername(USERNAME).password("unused").roles("DEV").build());
+
+		doFilter(accessToken.getCompactToken());
+
+		assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+		verify(userDetailsService, never()).loadUserByUsername(anyString());
+	}
+
+	@Test
+	void statelessModeRejectsRevokedTokens() throws Exception {
+		useStatelessMode();
+		IssuedToken accessToken = jwtService.generateToken(
+				User.withUsername(USERNAME).password("unused").roles("DEV").build());
+		when(tokenRevocationIndex.isRevoked(accessToken.getTokenId())).thenReturn(true);
+
+		doFilter(accessToken.getCompactToken());
+
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+	}
+
+	private void useStatelessMode() {
+		ReflectionTestUtils.setField(jwtService, "jwtStatelessEnabled", true);
+		filter = new JwtAuthenticationFilter(jwtService, userDetailsService, true, new SimpleMeterRegistry());
+	}
+
+	private void doFilter(String token) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/roster-up/v1/tenants");
+		request.addHeader("Authorization", "Bearer " + token);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+	}
+
+	/**
+	 * @return a token shaped like the ones issued before the token type claim existed.
+	 */
+	private static String legacyToken(long lifetimeMs) {
+		Date issuedAt = new Date();
+		return Jwts.builder()
+				.claim(VerifiedToken.ROLES_CLAIM, List.of("ROLE_DEV"))
+				.setId(UUID.randomUUID().toString())
+				.setSubject(USERNAME)
+				.setIssuedAt(issuedAt)
+				.setExpiration(new Date(issuedAt.getTime() + lifetimeMs))
+				.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+				.compact();
+	}
+}
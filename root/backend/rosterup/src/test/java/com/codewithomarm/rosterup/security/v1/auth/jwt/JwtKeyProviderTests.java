@@ -0,0 +1,115 @@
+package com.codewithomarm.rosterup.security.v1.auth.jwt;
+
+import com.codewithomarm.rosterup.security.v1.auth.service.revocation.TokenRevocationIndex;
+import com.codewithomarm.rosterup.security.v1.auth.service.token.TokenWriter;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Rotates the signing key of {@link JwtKeyProvider} by swapping its keystore file for one with
+ * an additional, more recently issued key, as an operator would. The fixture keystores under
+ * {@code src/test/resources/jwt} were generated with keytool: {@code key-a} is an RSA key valid
+ * since 2024, {@code key-b} a P-256 EC key valid since 2025.
+ */
+class JwtKeyProviderTests {
+
+	private static final String SECRET = "eW91cl9zdXBlcl9zZWNyZXRfa2V5XzEyMzQ1Njc4OTA=";
+	private static final String KEYSTORE_PASSWORD = "changeit";
+
+	@TempDir
+	private Path tempDir;
+
+	private Path keyStore;
+	private JwtKeyProvider jwtKeyProvider;
+	private JwtService jwtService;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		keyStore = tempDir.resolve("jwt.p12");
+		copyFixture("jwt/jwt-key-a.p12");
+		jwtKeyProvider = new JwtKeyProvider(SECRET, keyStore.toUri().toString(), KEYSTORE_PASSWORD, false);
+		jwtService = new JwtService(mock(TokenRevocationIndex.class), mock(TokenWriter.class), jwtKeyProvider);
+		ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 86_400_000L);
+	}
+
+	@Test
+	void keystoreKeySignsWithItsAliasAsKid() {
+		String token = issueToken();
+
+		assertEquals("key-a", header(token).getKeyId());
+		assertEquals("RS256", header(token).getAlgorithm());
+		assertEquals(SignatureAlgorithm.RS256, jwtKeyProvider.current().getSignatureAlgorithm());
+		assertEquals("omar.montoya", jwtService.verify(token).getSubject());
+	}
+
+	@Test
+	void tokensSignedBeforeRotationStillVerifyAfterIt() throws IOException {
+		String tokenSignedWithA = issueToken();
+
+		copyFixture("jwt/jwt-keys-a-b.p12");
+		jwtKeyProvider.reload();
+		String tokenSignedWithB = issueToken();
+
+		assertEquals("key-b", header(tokenSignedWithB).getKeyId());
+		assertEquals("ES256", header(tokenSignedWithB).getAlgorithm());
+		assertEquals("key-a", header(tokenSignedWithA).getKeyId());
+		assertEquals("omar.montoya", jwtService.verify(tokenSignedWithA).getSubject());
+		assertEquals("omar.montoya", jwtService.verify(tokenSignedWithB).getSubject());
+	}
+
+	@Test
+	void jwksListsEveryKeyOfTheKeystore() throws IOException {
+		copyFixture("jwt/jwt-keys-a-b.p12");
+		jwtKeyProvider.reload();
+
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> keys = (List<Map<String, Object>>) JsonWebKeys
+				.toJwkSet(jwtKeyProvider.current().getPublicKeys()).get("keys");
+
+		assertEquals(List.of("key-a", "key-b"), keys.stream().map(key -> key.get("kid")).sorted().toList());
+		assertTrue(keys.stream().anyMatch(key -> "RSA".equals(key.get("kty")) && "RS256".equals(key.get("alg"))));
+		assertTrue(keys.stream().anyMatch(key -> "EC".equals(key.get("kty")) && "ES256".equals(key.get("alg"))));
+	}
+
+	@Test
+	void unreadableKeystoreKeepsTheCurrentKeys() throws IOException {
+		Files.writeString(keyStore, "not a keystore");
+
+		jwtKeyProvider.reload();
+
+		assertEquals("key-a", jwtKeyProvider.current().getSigningKeyId());
+	}
+
+	private String issueToken() {
+		return jwtService.generateToken(User.withUsername("omar.montoya").password("unused").roles("DEV").build())
+				.getCompactToken();
+	}
+
+	private void copyFixture(String fixture) throws IOException {
+		try (InputStream in = new ClassPathResource(fixture).getInputStream()) {
+			Files.copy(in, keyStore, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private JwsHeader<?> header(String token) {
+		return jwtKeyProvider.current().getParser().parseClaimsJws(token).getHeader();
+	}
+}
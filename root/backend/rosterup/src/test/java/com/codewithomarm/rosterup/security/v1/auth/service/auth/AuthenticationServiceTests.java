@@ -0,0 +1,106 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.auth;
+
+import com.codewithomarm.rosterup.security.v1.auth.dto.request.AuthenticationRequest;
+import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import com.codewithomarm.rosterup.security.v1.auth.service.revocation.TokenRevocationIndex;
+import com.codewithomarm.rosterup.security.v1.auth.service.token.TokenWriter;
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.RosterupPrincipalCache;
+import com.codewithomarm.rosterup.security.v1.user.repository.RosterupUserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the SQL statements issued by a login and by revoking all tokens of a user. Runs against an in-memory H2 database seeded by
+ * {@code DataInitializer}; every login is preceded by another one so the user always has exactly
+ * an active access and refresh token to revoke.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:login;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"jwt.revocation.notify.enabled=false",
+		"security.password.bcrypt-strength=4"
+})
+class AuthenticationServiceTests {
+
+	private static final String USERNAME = "omar.montoya";
+	private static final String PASSWORD = "Bred0420@@";
+	private static final String CLIENT_IP = "127.0.0.1";
+
+	@Autowired
+	private AuthenticationService authenticationService;
+
+	@Autowired
+	private RosterupPrincipalCache rosterupPrincipalCache;
+
+	@Autowired
+	private RosterupUserRepository rosterupUserRepository;
+
+	@Autowired
+	private TokenRepository tokenRepository;
+
+	@Autowired
+	private TokenWriter tokenWriter;
+
+	@Autowired
+	private TokenRevocationIndex tokenRevocationIndex;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		login();
+	}
+
+	@Test
+	void loginWithUncachedPrincipalLoadsUserOnce() {
+		rosterupPrincipalCache.evict(USERNAME);
+		statistics.clear();
+
+		login();
+
+		// user with roles, active token ids, revoke update, access and refresh token inserts
+		assertEquals(5, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void loginWithCachedPrincipalDoesNotLoadUser() {
+		statistics.clear();
+
+		login();
+
+		// active token ids, revoke update, access and refresh token inserts
+		assertEquals(4, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void revokingAllUserTokensRunsOneSelectAndOneUpdate() {
+		Long userId = rosterupUserRepository.findByUsername(USERNAME).orElseThrow().getId();
+		statistics.clear();
+
+		int revoked = AuthenticationService.revokeAllUserTokens(userId, tokenRepository, tokenWriter, tokenRevocationIndex);
+
+		assertEquals(2, revoked);
+		// active tokens, revoke update
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	private void login() {
+		authenticationService.authenticate(new AuthenticationRequest(USERNAME, PASSWORD), CLIENT_IP);
+	}
+}
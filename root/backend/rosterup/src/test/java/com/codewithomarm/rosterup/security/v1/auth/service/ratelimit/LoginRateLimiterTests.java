@@ -0,0 +1,96 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.ratelimit;
+
+import com.codewithomarm.rosterup.security.v1.user.model.RosterupUser;
+import com.codewithomarm.rosterup.security.v1.user.repository.RosterupUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the login throttle and the account lock of {@link LoginRateLimiter} end to end, against
+ * an in-memory H2 database seeded by {@code DataInitializer}. The lock threshold is set below the
+ * throttle so the lock can be observed, and the lock is kept short so its expiry can be.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:login-rate-limit;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+		"jwt.revocation.notify.enabled=false",
+		"security.password.bcrypt-strength=4",
+		"security.login-rate-limit.max-failures-per-username=5",
+		"security.login-rate-limit.lock-after-failures=3",
+		"security.login-rate-limit.lock-duration=2s"
+})
+class LoginRateLimiterTests {
+
+	private static final String LOGIN_PATH = "/api/roster-up/v1/auth/login";
+	private static final String USERNAME = "omar.montoya";
+	private static final String PASSWORD = "Bred0420@@";
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private RosterupUserRepository rosterupUserRepository;
+
+	@BeforeEach
+	void setUp() {
+		// HttpURLConnection cannot read a 401 response to a POST
+		restTemplate.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+	}
+
+	@Test
+	void loginIsThrottledAfterTooManyFailures() {
+		for (int attempt = 1; attempt <= 5; attempt++) {
+			assertEquals(HttpStatus.UNAUTHORIZED, login("unknown.user", "wrong").getStatusCode());
+		}
+
+		ResponseEntity<String> throttled = login("unknown.user", "wrong");
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, throttled.getStatusCode());
+		assertNotNull(throttled.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+	}
+
+	@Test
+	void accountIsLockedAfterTooManyFailuresUntilTheLockExpires() throws InterruptedException {
+		for (int attempt = 1; attempt <= 3; attempt++) {
+			login(USERNAME, "wrong");
+		}
+
+		RosterupUser user = rosterupUserRepository.findByUsername(USERNAME).orElseThrow();
+		assertNotNull(user.getLockedUntil());
+		assertTrue(user.getLockedUntil().isAfter(LocalDateTime.now()));
+		// Three failures stay under the throttle, so the correct password is refused by the lock
+		assertEquals(HttpStatus.UNAUTHORIZED, login(USERNAME, PASSWORD).getStatusCode());
+
+		Thread.sleep(Duration.between(LocalDateTime.now(), user.getLockedUntil()).toMillis() + 100);
+
+		assertEquals(HttpStatus.OK, login(USERNAME, PASSWORD).getStatusCode());
+	}
+
+	private ResponseEntity<String> login(String username, String password) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		return restTemplate.postForEntity(LOGIN_PATH,
+				new HttpEntity<>(Map.of("username", username, "password", password), headers), String.class);
+	}
+}
@@ -0,0 +1,72 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.revocation;
+
+import com.codewithomarm.rosterup.security.v1.auth.service.ratelimit.AccountLockedEvent;
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.RosterupPrincipalCache;
+import com.codewithomarm.rosterup.security.v1.auth.service.userdetails.VerifiedCredentialCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks what {@link TokenRevocationChannel} announces and how it applies announcements, without
+ * a Postgres listener connection.
+ */
+class TokenRevocationChannelTests {
+
+	private static final String CHANNEL = "auth_token_revocations";
+	private static final String LOCK_CHANNEL = "auth_account_locks";
+
+	private JdbcTemplate jdbcTemplate;
+	private TokenRevocationIndex tokenRevocationIndex;
+	private RosterupPrincipalCache rosterupPrincipalCache;
+	private VerifiedCredentialCache verifiedCredentialCache;
+	private TokenRevocationChannel channel;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		tokenRevocationIndex = mock(TokenRevocationIndex.class);
+		rosterupPrincipalCache = mock(RosterupPrincipalCache.class);
+		verifiedCredentialCache = mock(VerifiedCredentialCache.class);
+		channel = new TokenRevocationChannel(jdbcTemplate, mock(PlatformTransactionManager.class), tokenRevocationIndex,
+				rosterupPrincipalCache, verifiedCredentialCache, CHANNEL, LOCK_CHANNEL, "jdbc:unused", "", "");
+	}
+
+	@Test
+	void revocationsAreAnnouncedWithTheirExpiry() {
+		channel.onTokensRevoked(new TokensRevokedEvent(Map.of("token-id", 1_700_000_000_000L)));
+
+		verify(jdbcTemplate).queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, "token-id=1700000000000");
+	}
+
+	@Test
+	void announcedRevocationsAreApplied() {
+		channel.handleNotification(CHANNEL, "a=1700000000000,b=1700000000001");
+
+		verify(tokenRevocationIndex).applyRevocations(Map.of("a", 1_700_000_000_000L, "b", 1_700_000_000_001L));
+	}
+
+	@Test
+	void lockedAccountsAreAnnounced() {
+		channel.onAccountLocked(new AccountLockedEvent("omar.montoya"));
+
+		verify(jdbcTemplate).queryForObject("SELECT pg_notify(?, ?)", Object.class, LOCK_CHANNEL, "omar.montoya");
+	}
+
+	@Test
+	void announcedLockEvictsTheCachedPrincipalAndCredentials() {
+		channel.handleNotification(LOCK_CHANNEL, "omar.montoya");
+
+		verify(rosterupPrincipalCache).evict("omar.montoya");
+		verify(verifiedCredentialCache).evict("omar.montoya");
+		verify(tokenRevocationIndex, never()).applyRevocations(anyMap());
+	}
+}
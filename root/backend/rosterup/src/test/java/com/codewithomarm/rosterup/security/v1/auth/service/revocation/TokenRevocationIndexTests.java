@@ -0,0 +1,93 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.revocation;
+
+import com.codewithomarm.rosterup.security.v1.auth.model.ETokenType;
+import com.codewithomarm.rosterup.security.v1.auth.repository.RevokedToken;
+import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that {@link TokenRevocationIndex} keeps each revoked token exactly as long as the
+ * token itself can be used.
+ */
+class TokenRevocationIndexTests {
+
+	private static final long ACCESS_EXPIRATION_MS = 86_400_000L;
+	private static final long REFRESH_EXPIRATION_MS = 604_800_000L;
+
+	private TokenRepository tokenRepository;
+	private ApplicationEventPublisher eventPublisher;
+	private TokenRevocationIndex index;
+
+	@BeforeEach
+	void setUp() {
+		tokenRepository = mock(TokenRepository.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
+		index = new TokenRevocationIndex(tokenRepository, eventPublisher, ACCESS_EXPIRATION_MS, REFRESH_EXPIRATION_MS);
+	}
+
+	@Test
+	void revokedTokensAreAnnouncedWithTheirExpiry() {
+		LocalDateTime issuedAt = LocalDateTime.now();
+		index.revokeAll(List.of(
+				new RevokedToken("access", ETokenType.BEARER, issuedAt),
+				new RevokedToken("refresh", ETokenType.REFRESH, issuedAt)));
+
+		assertTrue(index.isRevoked("access"));
+		assertTrue(index.isRevoked("refresh"));
+		assertFalse(index.isRevoked("other"));
+
+		ArgumentCaptor<TokensRevokedEvent> event = ArgumentCaptor.forClass(TokensRevokedEvent.class);
+		verify(eventPublisher).publishEvent(event.capture());
+		long issuedAtMillis = epochMillis(issuedAt);
+		assertEquals(Map.of("access", issuedAtMillis + ACCESS_EXPIRATION_MS, "refresh", issuedAtMillis + REFRESH_EXPIRATION_MS),
+				event.getValue().getRetainUntilByTokenId());
+	}
+
+	@Test
+	void reloadRestoresRevokedTokensFromTheDatabase() {
+		when(tokenRepository.findUnexpiredRevoked(any(), any())).thenReturn(List.of(
+				new RevokedToken("access", ETokenType.BEARER, LocalDateTime.now().minusHours(1)),
+				new RevokedToken("refresh", ETokenType.REFRESH, LocalDateTime.now().minusDays(3))));
+
+		index.reload();
+
+		assertEquals(2, index.size());
+		assertTrue(index.isRevoked("access"));
+		assertTrue(index.isRevoked("refresh"));
+	}
+
+	@Test
+	void tokensArePurgedOnceTheyExpire() {
+		// An access token issued two days ago has expired, a refresh token issued then has not
+		when(tokenRepository.findUnexpiredRevoked(any(), any())).thenReturn(List.of(
+				new RevokedToken("expired-access", ETokenType.BEARER, LocalDateTime.now().minusDays(2)),
+				new RevokedToken("live-refresh", ETokenType.REFRESH, LocalDateTime.now().minusDays(2))));
+		index.reload();
+
+		index.applyRevocations(Map.of("announced", System.currentTimeMillis() + ACCESS_EXPIRATION_MS));
+
+		assertFalse(index.isRevoked("expired-access"));
+		assertTrue(index.isRevoked("live-refresh"));
+		assertTrue(index.isRevoked("announced"));
+	}
+
+	private static long epochMillis(LocalDateTime dateTime) {
+		return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+}
@@ -0,0 +1,74 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.revocation;
+
+import com.codewithomarm.rosterup.security.v1.auth.dto.request.AuthenticationRequest;
+import com.codewithomarm.rosterup.security.v1.auth.dto.response.AuthenticationResponse;
+import com.codewithomarm.rosterup.security.v1.auth.jwt.JwtService;
+import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import com.codewithomarm.rosterup.security.v1.auth.service.auth.AuthenticationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks that a revocation made on one node reaches the index of another node through the
+ * periodic resync alone, as happens when its notification is lost. The second node is a
+ * separate {@link TokenRevocationIndex} over the same in-memory H2 database.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:resync;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+		"jwt.revocation.notify.enabled=false",
+		"security.password.bcrypt-strength=4"
+})
+class TokenRevocationResyncTests {
+
+	private static final AuthenticationRequest LOGIN = new AuthenticationRequest("omar.montoya", "Bred0420@@");
+
+	@Autowired
+	private AuthenticationService authenticationService;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private TokenRevocationIndex tokenRevocationIndex;
+
+	@Autowired
+	private TokenRepository tokenRepository;
+
+	@Value("${jwt.expirationMs}")
+	private long jwtExpirationMs;
+
+	@Value("${jwt.refresh-token.expirationMs}")
+	private long jwtRefreshExpirationMs;
+
+	@Test
+	void revocationReachesAnotherNodeOnResync() {
+		TokenRevocationIndex otherNode = new TokenRevocationIndex(tokenRepository,
+				mock(ApplicationEventPublisher.class), jwtExpirationMs, jwtRefreshExpirationMs);
+		otherNode.reload();
+		AuthenticationResponse first = authenticationService.authenticate(LOGIN, "127.0.0.1");
+		String accessTokenId = jwtService.verify(first.getAccessToken()).getTokenId();
+		String refreshTokenId = jwtService.verify(first.getRefreshToken()).getTokenId();
+
+		// A new login revokes the tokens of the previous one on this node only
+		authenticationService.authenticate(LOGIN, "127.0.0.1");
+		assertTrue(tokenRevocationIndex.isRevoked(accessTokenId));
+		assertFalse(otherNode.isRevoked(accessTokenId));
+
+		otherNode.resync();
+
+		assertTrue(otherNode.isRevoked(accessTokenId));
+		assertTrue(otherNode.isRevoked(refreshTokenId));
+	}
+}
@@ -0,0 +1,166 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.token;
+
+import com.codewithomarm.rosterup.security.v1.auth.dto.request.AuthenticationRequest;
+import com.codewithomarm.rosterup.security.v1.auth.dto.response.AuthenticationResponse;
+import com.codewithomarm.rosterup.security.v1.auth.jwt.IssuedToken;
+import com.codewithomarm.rosterup.security.v1.auth.jwt.JwtService;
+import com.codewithomarm.rosterup.security.v1.auth.model.ETokenType;
+import com.codewithomarm.rosterup.security.v1.auth.model.Token;
+import com.codewithomarm.rosterup.security.v1.auth.repository.RevokedToken;
+import com.codewithomarm.rosterup.security.v1.auth.repository.TokenRepository;
+import com.codewithomarm.rosterup.security.v1.auth.service.auth.AuthenticationService;
+import com.codewithomarm.rosterup.security.v1.user.repository.RosterupUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the races between {@link WriteBehindTokenWriter} and token revocation against an
+ * in-memory H2 database. The writer's background thread is stopped before each test, so issued
+ * tokens stay queued until the test drains them with {@link WriteBehindTokenWriter#stop()}.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:writebehind;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+		"jwt.revocation.notify.enabled=false",
+		"jwt.write-behind.enabled=true",
+		"security.password.bcrypt-strength=4"
+})
+class WriteBehindTokenWriterTests {
+
+	private static final String USERNAME = "omar.montoya";
+	private static final AuthenticationRequest LOGIN = new AuthenticationRequest(USERNAME, "Bred0420@@");
+
+	@Autowired
+	private WriteBehindTokenWriter tokenWriter;
+
+	@Autowired
+	private AuthenticationService authenticationService;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private TokenRepository tokenRepository;
+
+	@Autowired
+	private RosterupUserRepository rosterupUserRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		tokenWriter.stop();
+		ReflectionTestUtils.setField(tokenWriter, "running", true);
+		userId = rosterupUserRepository.findByUsername(USERNAME).orElseThrow().getId();
+	}
+
+	@Test
+	void tokenRevokedWhileQueuedIsWrittenRevoked() {
+		AuthenticationResponse login = authenticationService.authenticate(LOGIN, "127.0.0.1");
+		String accessTokenId = tokenId(login.getAccessToken());
+		assertFalse(tokenRepository.existsByTokenId(accessTokenId));
+
+		List<RevokedToken> revoked = tokenWriter.revokePending(userId);
+		tokenWriter.stop();
+
+		assertEquals(2, revoked.size());
+		assertRevoked(accessTokenId);
+		assertRevoked(tokenId(login.getRefreshToken()));
+	}
+
+	@Test
+	void tokenRevokedAfterAnEarlyFlushIsRevokedAgainOnInsert() {
+		AuthenticationResponse login = authenticationService.authenticate(LOGIN, "127.0.0.1");
+		String accessTokenId = tokenId(login.getAccessToken());
+
+		// The row is written by the early flush, but the token stays queued
+		tokenWriter.flushPending(userId);
+		assertFalse(tokenRepository.findByTokenId(accessTokenId).orElseThrow().isRevoked());
+		tokenWriter.revokePending(userId);
+		tokenWriter.stop();
+
+		assertRevoked(accessTokenId);
+	}
+
+	@Test
+	void refreshFlushesTheQueuedRefreshToken() {
+		AuthenticationResponse login = authenticationService.authenticate(LOGIN, "127.0.0.1");
+		String refreshTokenId = tokenId(login.getRefreshToken());
+		assertFalse(tokenRepository.existsByTokenId(refreshTokenId));
+
+		AuthenticationResponse refreshed = authenticationService.refreshToken("Bearer " + login.getRefreshToken());
+
+		assertNotNull(refreshed.getAccessToken());
+		assertRevoked(refreshTokenId);
+	}
+
+	@Test
+	void tokenIsWrittenSynchronouslyWhenTheQueueIsFull() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		WriteBehindTokenWriter writer = new WriteBehindTokenWriter(jdbcTemplate, meterRegistry, 1, 500, 200,
+				5_000, 100, 86_400_000L);
+		ReflectionTestUtils.setField(writer, "running", true);
+		IssuedToken queued = jwtService.generateToken(user());
+		IssuedToken overflowing = jwtService.generateToken(user());
+
+		writer.save(userId, queued, ETokenType.BEARER);
+		writer.save(userId, overflowing, ETokenType.BEARER);
+
+		assertFalse(tokenRepository.existsByTokenId(queued.getTokenId()));
+		assertTrue(tokenRepository.existsByTokenId(overflowing.getTokenId()));
+		assertEquals(1.0, meterRegistry.counter("rosterup.tokens.write-behind.overflow").count());
+		writer.stop();
+		assertTrue(tokenRepository.existsByTokenId(queued.getTokenId()));
+	}
+
+	@Test
+	void tokenIsOnlyRecordedOnceItsRowExistsAfterTheGracePeriod() {
+		Date beforeGracePeriod = new Date(System.currentTimeMillis() - 60_000L);
+
+		assertTrue(tokenWriter.isRecorded(UUID.randomUUID().toString(), new Date()));
+		assertFalse(tokenWriter.isRecorded(UUID.randomUUID().toString(), beforeGracePeriod));
+
+		AuthenticationResponse login = authenticationService.authenticate(LOGIN, "127.0.0.1");
+		String accessTokenId = tokenId(login.getAccessToken());
+		assertTrue(tokenWriter.isRecorded(accessTokenId, beforeGracePeriod));
+		tokenWriter.stop();
+		assertTrue(tokenWriter.isRecorded(accessTokenId, beforeGracePeriod));
+	}
+
+	private String tokenId(String compactToken) {
+		return jwtService.verify(compactToken).getTokenId();
+	}
+
+	private void assertRevoked(String tokenId) {
+		Token token = tokenRepository.findByTokenId(tokenId).orElseThrow();
+		assertTrue(token.isRevoked());
+		assertNotNull(token.getRevokedAt());
+	}
+
+	private static UserDetails user() {
+		return User.withUsername(USERNAME).password("unused").roles("DEV").build();
+	}
+}
@@ -0,0 +1,95 @@
+package com.codewithomarm.rosterup.security.v1.auth.service.userdetails;
+
+import com.codewithomarm.rosterup.security.v1.user.model.ERole;
+import com.codewithomarm.rosterup.security.v1.user.model.RosterupRole;
+import com.codewithomarm.rosterup.security.v1.user.model.RosterupUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link RosterupUserDetailsImpl} principals hold the shared {@link RoleAuthorities}
+ * instances instead of building an authority per role, so reading them allocates nothing, and
+ * that Spring Security's {@code hasRole} still matches them.
+ */
+class RosterupUserDetailsImplTests {
+
+	@Test
+	void authoritiesAreSharedPerRole() {
+		List<GrantedAuthority> authorities = new ArrayList<>(userWithEveryRole().getAuthorities());
+
+		assertEquals(ERole.values().length, authorities.size());
+		for (GrantedAuthority authority : authorities) {
+			ERole role = ERole.valueOf(authority.getAuthority().substring("ROLE_".length()));
+			assertSame(RoleAuthorities.of(role), authority);
+		}
+	}
+
+	@Test
+	void readingAuthoritiesReturnsTheSameList() {
+		RosterupUserDetailsImpl userDetails = userWithEveryRole();
+
+		assertSame(userDetails.getAuthorities(), userDetails.getAuthorities());
+	}
+
+	@Test
+	void roleClaimsMapToTheSharedAuthorities() {
+		List<GrantedAuthority> authorities = RoleAuthorities.of(List.of("ROLE_DEV", "ROLE_ADMIN"));
+
+		assertSame(RoleAuthorities.of(ERole.DEV), authorities.get(0));
+		assertSame(RoleAuthorities.of(ERole.ADMIN), authorities.get(1));
+	}
+
+	@Test
+	void hasRoleGrantsADevUser() {
+		AuthorityAuthorizationManager<Object> hasDevRole = AuthorityAuthorizationManager.hasRole("DEV");
+
+		assertTrue(hasDevRole.check(() -> authenticated(userWith(ERole.DEV, ERole.USER)), new Object()).isGranted());
+	}
+
+	@Test
+	void hasRoleDeniesAUserWithoutTheRole() {
+		AuthorityAuthorizationManager<Object> hasDevRole = AuthorityAuthorizationManager.hasRole("DEV");
+
+		assertFalse(hasDevRole.check(() -> authenticated(userWith(ERole.ADMIN, ERole.USER)), new Object()).isGranted());
+	}
+
+	private static Authentication authenticated(RosterupUserDetailsImpl userDetails) {
+		return UsernamePasswordAuthenticationToken.authenticated(userDetails, null, userDetails.getAuthorities());
+	}
+
+	private static RosterupUserDetailsImpl userWithEveryRole() {
+		return userWith(ERole.values());
+	}
+
+	private static RosterupUserDetailsImpl userWith(ERole... roleNames) {
+		Set<RosterupRole> roles = new HashSet<>();
+		for (ERole name : roleNames) {
+			RosterupRole role = new RosterupRole();
+			role.setName(name);
+			roles.add(role);
+		}
+		RosterupUser user = new RosterupUser();
+		user.setId(1L);
+		user.setUsername("omar.montoya");
+		user.setPassword("unused");
+		user.setAccountNonExpired(true);
+		user.setAccountNonLocked(true);
+		user.setCredentialsNonExpired(true);
+		user.setEnabled(true);
+		user.setRosterupRoles(roles);
+		return new RosterupUserDetailsImpl(user);
+	}
+}
@@ -0,0 +1,82 @@
+package com.codewithomarm.rosterup.tenant.v1.assembler;
+
+import com.codewithomarm.rosterup.tenant.v1.cursor.TenantCursors;
+import com.codewithomarm.rosterup.tenant.v1.dto.response.TenantResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks the next and prev links of cursor windows over five tenants read two at a time, at
+ * both ends of the listing and in both directions.
+ */
+class TenantPagedResourcesAssemblerTests {
+
+	private static final int SIZE = 2;
+
+	private final TenantPagedResourcesAssembler assembler = new TenantPagedResourcesAssembler();
+
+	@Test
+	void firstForwardWindowLinksOnlyToNext() {
+		CollectionModel<EntityModel<TenantResponse>> model = assembler.toCursorModel(
+				window(true, 1, 2), ScrollPosition.keyset(), SIZE);
+
+		assertEquals(ScrollPosition.forward(Map.of("id", 2L)), cursorOf(model, IanaLinkRelations.NEXT.value()));
+		assertFalse(model.hasLink(IanaLinkRelations.PREV));
+	}
+
+	@Test
+	void lastForwardWindowLinksOnlyToPrev() {
+		CollectionModel<EntityModel<TenantResponse>> model = assembler.toCursorModel(
+				window(false, 5), ScrollPosition.forward(Map.of("id", 4L)), SIZE);
+
+		assertFalse(model.hasLink(IanaLinkRelations.NEXT));
+		assertEquals(ScrollPosition.backward(Map.of("id", 5L)), cursorOf(model, IanaLinkRelations.PREV.value()));
+	}
+
+	@Test
+	void backwardWindowAtTheStartLinksOnlyToNext() {
+		CollectionModel<EntityModel<TenantResponse>> model = assembler.toCursorModel(
+				window(false, 1, 2), ScrollPosition.backward(Map.of("id", 3L)), SIZE);
+
+		assertEquals(ScrollPosition.forward(Map.of("id", 2L)), cursorOf(model, IanaLinkRelations.NEXT.value()));
+		assertFalse(model.hasLink(IanaLinkRelations.PREV));
+	}
+
+	@Test
+	void backwardWindowFromTheEndLinksToBoth() {
+		CollectionModel<EntityModel<TenantResponse>> model = assembler.toCursorModel(
+				window(true, 3, 4), ScrollPosition.backward(Map.of("id", 5L)), SIZE);
+
+		assertEquals(ScrollPosition.forward(Map.of("id", 4L)), cursorOf(model, IanaLinkRelations.NEXT.value()));
+		assertEquals(ScrollPosition.backward(Map.of("id", 3L)), cursorOf(model, IanaLinkRelations.PREV.value()));
+	}
+
+	/**
+	 * @param hasMore Whether more tenants follow in the direction the window was read.
+	 */
+	private static Window<TenantResponse> window(boolean hasMore, long... ids) {
+		List<TenantResponse> tenants = LongStream.of(ids)
+				.mapToObj(id -> new TenantResponse(id, "Tenant " + id, "tenant" + id, true, null, null))
+				.toList();
+		return Window.from(tenants, i -> ScrollPosition.forward(Map.of("id", ids[i])), hasMore);
+	}
+
+	private static KeysetScrollPosition cursorOf(CollectionModel<?> model, String rel) {
+		String href = model.getRequiredLink(rel).getHref();
+		String cursor = UriComponentsBuilder.fromUriString(href).build().getQueryParams().getFirst("cursor");
+		return TenantCursors.decode(cursor);
+	}
+}
@@ -0,0 +1,104 @@
+package com.codewithomarm.rosterup.tenant.v1.filter;
+
+import com.codewithomarm.rosterup.tenant.v1.context.TenantContext;
+import com.codewithomarm.rosterup.tenant.v1.resolver.ResolvedTenant;
+import com.codewithomarm.rosterup.tenant.v1.resolver.TenantResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks how {@link TenantRoutingFilter} routes requests by their {@code Host} header and that
+ * the {@link TenantContext} never outlives the request.
+ */
+class TenantRoutingFilterTests {
+
+	private static final String BASE_DOMAIN = "rosterup.com";
+
+	private TenantResolver tenantResolver;
+	private TenantRoutingFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		tenantResolver = mock(TenantResolver.class);
+		filter = new TenantRoutingFilter(tenantResolver, new ObjectMapper(), BASE_DOMAIN);
+	}
+
+	@AfterEach
+	void tearDown() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void unknownSubdomainIsRejected() throws Exception {
+		when(tenantResolver.resolve("unknown")).thenReturn(Optional.empty());
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		FilterChain chain = mock(FilterChain.class);
+
+		filter.doFilter(requestTo("unknown." + BASE_DOMAIN), response, chain);
+
+		assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatus());
+		assertTrue(response.getContentAsString().contains("unknown"));
+		verify(chain, never()).doFilter(any(), any());
+	}
+
+	@Test
+	void requestIsRoutedToTheTenantOfItsHost() throws Exception {
+		when(tenantResolver.resolve("acme")).thenReturn(Optional.of(new ResolvedTenant(7L, true)));
+		AtomicReference<Long> routedTenantId = new AtomicReference<>();
+
+		filter.doFilter(requestTo("ACME." + BASE_DOMAIN + ":8080"), new MockHttpServletResponse(),
+				(request, response) -> routedTenantId.set(TenantContext.getTenantId()));
+
+		assertEquals(7L, routedTenantId.get());
+		assertNull(TenantContext.getTenantId());
+	}
+
+	@Test
+	void baseDomainIsNotRouted() throws Exception {
+		AtomicReference<Long> routedTenantId = new AtomicReference<>(-1L);
+
+		filter.doFilter(requestTo(BASE_DOMAIN), new MockHttpServletResponse(),
+				(request, response) -> routedTenantId.set(TenantContext.getTenantId()));
+
+		assertNull(routedTenantId.get());
+		verify(tenantResolver, never()).resolve(anyString());
+	}
+
+	@Test
+	void tenantIsClearedWhenTheRequestFails() {
+		when(tenantResolver.resolve("acme")).thenReturn(Optional.of(new ResolvedTenant(7L, true)));
+
+		assertThrows(IllegalStateException.class, () -> filter.doFilter(requestTo("acme." + BASE_DOMAIN),
+				new MockHttpServletResponse(), (request, response) -> {
+					throw new IllegalStateException("controller failed");
+				}));
+
+		assertNull(TenantContext.getTenantId());
+	}
+
+	private static MockHttpServletRequest requestTo(String host) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/roster-up/v1/tenants");
+		request.addHeader("Host", host);
+		return request;
+	}
+}
@@ -0,0 +1,129 @@
+package com.codewithomarm.rosterup.tenant.v1.resolver;
+
+import com.codewithomarm.rosterup.tenant.v1.dto.request.CreateTenantRequest;
+import com.codewithomarm.rosterup.tenant.v1.exception.DuplicateSubdomainException;
+import com.codewithomarm.rosterup.tenant.v1.model.Tenant;
+import com.codewithomarm.rosterup.tenant.v1.repository.TenantRepository;
+import com.codewithomarm.rosterup.tenant.v1.service.TenantServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the queries {@link TenantResolver} saves and the ones it must not: unknown subdomains
+ * expire after the negative TTL, evictions are repeated once the transaction completes, and
+ * uniqueness checks bypass the cache.
+ */
+class TenantResolverTests {
+
+	private static final String SUBDOMAIN = "acme";
+	private static final Duration NEGATIVE_TTL = Duration.ofMillis(100);
+
+	private TenantRepository tenantRepository;
+	private TenantResolver tenantResolver;
+
+	@BeforeEach
+	void setUp() {
+		tenantRepository = mock(TenantRepository.class);
+		tenantResolver = new TenantResolver(tenantRepository, new SimpleMeterRegistry(), 100, Duration.ofHours(1),
+				NEGATIVE_TTL);
+	}
+
+	@Test
+	void unknownSubdomainIsCachedForTheNegativeTtl() throws InterruptedException {
+		when(tenantRepository.findBySubdomain(SUBDOMAIN)).thenReturn(Optional.empty(), Optional.of(tenant()));
+
+		assertTrue(tenantResolver.resolve(SUBDOMAIN).isEmpty());
+		assertTrue(tenantResolver.resolve(SUBDOMAIN).isEmpty());
+		verify(tenantRepository, times(1)).findBySubdomain(SUBDOMAIN);
+
+		Thread.sleep(NEGATIVE_TTL.toMillis() * 2);
+
+		assertEquals(1L, tenantResolver.resolve(SUBDOMAIN).orElseThrow().id());
+		verify(tenantRepository, times(2)).findBySubdomain(SUBDOMAIN);
+	}
+
+	@Test
+	void evictionIsRepeatedOnceTheTransactionCompletes() {
+		when(tenantRepository.findBySubdomain(SUBDOMAIN)).thenReturn(Optional.of(tenant()));
+		tenantResolver.resolve(SUBDOMAIN);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			tenantResolver.evict(SUBDOMAIN);
+			// A lookup racing with the transaction caches the tenant as it was before the commit
+			tenantResolver.resolve(SUBDOMAIN);
+			TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+					TransactionSynchronization.STATUS_COMMITTED);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		tenantResolver.resolve(SUBDOMAIN);
+		verify(tenantRepository, times(3)).findBySubdomain(SUBDOMAIN);
+	}
+
+	@Test
+	void findingATenantTakesOneQuery() {
+		Tenant tenant = tenant();
+		when(tenantRepository.findBySubdomain(SUBDOMAIN)).thenReturn(Optional.of(tenant));
+		when(tenantRepository.findById(1L)).thenReturn(Optional.of(tenant));
+
+		assertEquals(tenant, tenantResolver.findTenant(SUBDOMAIN).orElseThrow());
+		verify(tenantRepository, never()).findById(anyLong());
+
+		assertEquals(tenant, tenantResolver.findTenant(SUBDOMAIN).orElseThrow());
+		verify(tenantRepository, times(1)).findBySubdomain(SUBDOMAIN);
+		verify(tenantRepository, times(1)).findById(1L);
+	}
+
+	@Test
+	void findingACachedUnknownSubdomainTakesNoQuery() {
+		when(tenantRepository.findBySubdomain(SUBDOMAIN)).thenReturn(Optional.empty());
+
+		assertFalse(tenantResolver.findTenant(SUBDOMAIN).isPresent());
+		assertFalse(tenantResolver.findTenant(SUBDOMAIN).isPresent());
+
+		verify(tenantRepository, times(1)).findBySubdomain(SUBDOMAIN);
+		verify(tenantRepository, never()).findById(anyLong());
+	}
+
+	@Test
+	void creatingATenantChecksUniquenessAgainstTheRepository() {
+		when(tenantRepository.findBySubdomain(SUBDOMAIN)).thenReturn(Optional.empty(), Optional.of(tenant()));
+		// Cached as unknown, while another node creates the tenant
+		tenantResolver.resolve(SUBDOMAIN);
+		TenantServiceImpl tenantService = new TenantServiceImpl(tenantRepository, tenantResolver);
+		CreateTenantRequest request = new CreateTenantRequest();
+		request.setName("Acme");
+		request.setSubdomain(SUBDOMAIN);
+
+		assertThrows(DuplicateSubdomainException.class, () -> tenantService.createTenant(request));
+		verify(tenantRepository, never()).save(any());
+	}
+
+	private static Tenant tenant() {
+		Tenant tenant = new Tenant("Acme", SUBDOMAIN, true);
+		ReflectionTestUtils.setField(tenant, "id", 1L);
+		return tenant;
+	}
+}